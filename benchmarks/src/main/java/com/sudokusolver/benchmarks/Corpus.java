@@ -0,0 +1,40 @@
+package com.sudokusolver.benchmarks;
+
+import com.sudokusolver.logic.SudokuLoader;
+import com.sudokusolver.model.SudokuPuzzle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+// Fixed puzzle sets bundled under resources/corpus, every file holds exactly SIZE puzzles
+final class Corpus {
+    static final int SIZE = 300;
+
+    private Corpus() {
+    }
+
+    // The loader reads from files, so the bundled resource is copied out first
+    static Path copyToTempFile(String name) throws IOException {
+        Path file = Files.createTempFile("corpus-" + name, ".txt");
+        file.toFile().deleteOnExit();
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".txt")) {
+            if (in == null) throw new IOException("Missing corpus " + name);
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    static int[][][] grids(String name) throws IOException {
+        List<SudokuPuzzle> puzzles = SudokuLoader.loadAllFromFile(copyToTempFile(name).toString());
+        if (puzzles.size() != SIZE) throw new IllegalStateException("Corpus " + name + " has " + puzzles.size() + " puzzles");
+        int[][][] grids = new int[SIZE][][];
+        for (int i = 0; i < SIZE; ++i) {
+            grids[i] = puzzles.get(i).board;
+        }
+        return grids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sudokusolver.benchmarks;
+
+import com.sudokusolver.logic.SudokuArchive;
+import com.sudokusolver.logic.SudokuLoader;
+import com.sudokusolver.model.SudokuPuzzle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Parsing cost per puzzle for each input path
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE)
+public class LoaderBenchmark {
+    @Param({"easy", "medium", "hard"})
+    public String corpus;
+
+    private String textFile;
+    private Path archiveFile;
+    private SudokuArchive archive;
+    private final int[] cells = new int[81];
+
+    @Setup
+    public void setup() throws IOException {
+        textFile = Corpus.copyToTempFile(corpus).toString();
+        archiveFile = Files.createTempFile("corpus-" + corpus, ".sdkb");
+        SudokuArchive.convert(textFile, archiveFile.toString());
+        archive = SudokuArchive.open(archiveFile.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        archive.close();
+        Files.deleteIfExists(archiveFile);
+    }
+
+    @Benchmark
+    public void loadAllFromFile(Blackhole blackhole) throws IOException {
+        for (SudokuPuzzle puzzle : SudokuLoader.loadAllFromFile(textFile)) {
+            blackhole.consume(puzzle);
+        }
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) throws IOException {
+        try (Stream<SudokuPuzzle> puzzles = SudokuLoader.stream(textFile)) {
+            puzzles.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void archiveGet(Blackhole blackhole) {
+        for (int i = 0; i < Corpus.SIZE; ++i) {
+            blackhole.consume(archive.get(i));
+        }
+    }
+
+    @Benchmark
+    public void archiveReadCells(Blackhole blackhole) {
+        for (int i = 0; i < Corpus.SIZE; ++i) {
+            archive.readCells(i, cells);
+            blackhole.consume(cells);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.sudokusolver.benchmarks;
+
+import com.sudokusolver.logic.SudokuSolver;
+import com.sudokusolver.model.SudokuBoard;
+import com.sudokusolver.model.SudokuTechnique;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Each operation builds a board from a corpus grid and runs one technique on it, so `construct`
+// is the baseline to subtract from the single technique numbers. Times are per puzzle.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(Corpus.SIZE)
+public class TechniqueBenchmark {
+    @Param({"easy", "medium", "hard"})
+    public String corpus;
+
+    private int[][][] grids;
+    private SudokuSolver solver;
+
+    @Setup
+    public void setup() throws IOException {
+        grids = Corpus.grids(corpus);
+        solver = new SudokuSolver();
+    }
+
+    @Benchmark
+    public void construct(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid));
+        }
+    }
+
+    @Benchmark
+    public void removeInvalidCandidates(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).removeInvalidCandidates());
+        }
+    }
+
+    @Benchmark
+    public void fillSingleCandidate(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).fillSingleCandidate());
+        }
+    }
+
+    @Benchmark
+    public void fillHiddenRowColumnSingles(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).fillHiddenRowColumnSingles());
+        }
+    }
+
+    @Benchmark
+    public void nakedPairs(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).nakedPairs());
+        }
+    }
+
+    @Benchmark
+    public void boxLineReduction(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).boxLineReduction());
+        }
+    }
+
+    @Benchmark
+    public void claiming(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).claiming());
+        }
+    }
+
+    @Benchmark
+    public void hiddenPairs(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).hiddenPairs());
+        }
+    }
+
+    @Benchmark
+    public void hiddenTriples(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).hiddenTriples());
+        }
+    }
+
+    @Benchmark
+    public void nakedTriples(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).nakedTriples());
+        }
+    }
+
+    @Benchmark
+    public void nakedQuads(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).nakedQuads());
+        }
+    }
+
+    @Benchmark
+    public void xWing(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).xWing());
+        }
+    }
+
+    @Benchmark
+    public void swordfish(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).swordfish());
+        }
+    }
+
+    @Benchmark
+    public void xyWing(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(new SudokuBoard(grid).xyWing());
+        }
+    }
+
+    // Logical techniques only, stalled boards stay unsolved
+    @Benchmark
+    public void solve(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            SudokuBoard board = new SudokuBoard(grid);
+            board.solve();
+            blackhole.consume(board.isSolved());
+        }
+    }
+
+    // Techniques plus the search fallback
+    @Benchmark
+    public void solveComplete(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            blackhole.consume(solver.solve(new SudokuBoard(grid)));
+        }
+    }
+
+    // Search fallback behind every logical technique, including the opt-in ones
+    @Benchmark
+    public void solveAllTechniques(Blackhole blackhole) {
+        for (int[][] grid : grids) {
+            SudokuBoard board = new SudokuBoard(grid);
+            for (SudokuTechnique technique : SudokuTechnique.values()) {
+                if (technique != SudokuTechnique.SEARCH) board.setEnabled(technique, true);
+            }
+            blackhole.consume(solver.solve(board));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sudokusolver.benchmarks;
+
+import com.sudokusolver.logic.SudokuSolver;
+import com.sudokusolver.logic.SudokuVectorBatch;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Batch engine with and without SIMD lanes against solving one board at a time. Times are per puzzle.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(Corpus.SIZE)
+public class VectorBatchBenchmark {
+    @Param({"easy", "medium", "hard"})
+    public String corpus;
+
+    private List<SudokuPuzzle> puzzles;
+    private SudokuVectorBatch vectorized;
+    private SudokuVectorBatch scalar;
+    private SudokuSolver solver;
+
+    @Setup
+    public void setup() throws IOException {
+        puzzles = new ArrayList<>();
+        for (int[][] grid : Corpus.grids(corpus)) {
+            puzzles.add(new SudokuPuzzle("", grid, corpus));
+        }
+        vectorized = new SudokuVectorBatch(9, SudokuVectorBatch.DEFAULT_BLOCK_SIZE, SudokuVectorBatch.isVectorAvailable());
+        scalar = new SudokuVectorBatch(9, SudokuVectorBatch.DEFAULT_BLOCK_SIZE, false);
+        solver = new SudokuSolver();
+    }
+
+    @Benchmark
+    public List<SudokuResult> vectorized() {
+        return vectorized.solveAll(puzzles);
+    }
+
+    @Benchmark
+    public List<SudokuResult> scalar() {
+        return scalar.solveAll(puzzles);
+    }
+
+    @Benchmark
+    public void perBoard(Blackhole blackhole) {
+        for (SudokuPuzzle puzzle : puzzles) {
+            blackhole.consume(solver.solve(puzzle, null));
+        }
+    }
+}
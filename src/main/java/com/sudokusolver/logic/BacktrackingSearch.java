@@ -0,0 +1,69 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBudget;
+import com.sudokusolver.model.SudokuCandidates;
+import com.sudokusolver.model.SudokuLayout;
+
+// Depth-first search on the most constrained cell, with naked and hidden single propagation at each node.
+// Each depth owns a preallocated copy of the candidate masks, so branching is a single array copy.
+// The board size follows the length of the arrays passed to search(). Not thread safe, use one instance per thread.
+public class BacktrackingSearch implements SearchEngine {
+    private SinglesPropagator propagator;
+    private int cellCount;
+    private int[][] levels;
+    private int[] solution;
+    private int found;
+    private int limit;
+    private SudokuBudget budget;
+
+    // The per-depth arrays are sized by the first count() and reused while the board size stays the same
+    public BacktrackingSearch() {
+    }
+
+    @Override
+    public int count(int[] values, int[] candidates, int limit, SudokuBudget budget) {
+        prepare(values.length);
+        int[] grid = levels[0];
+        for (int index = 0; index < cellCount; ++index) {
+            grid[index] = values[index] != 0 ? SudokuCandidates.bit(values[index]) : candidates[index];
+        }
+        found = 0;
+        this.limit = limit;
+        this.budget = budget;
+        if (limit < 1 || !propagator.propagateSingles(grid)) return 0;
+        solve(0);
+        if (found > 0) {
+            for (int index = 0; index < cellCount; ++index) {
+                values[index] = SudokuCandidates.first(solution[index]);
+            }
+        }
+        return found;
+    }
+
+    // Switches the scratch state to the board size, reusing it when the size is unchanged
+    private void prepare(int cells) {
+        if (propagator != null && cellCount == cells) return;
+        propagator = new SinglesPropagator(SudokuLayout.forCellCount(cells));
+        cellCount = cells;
+        levels = new int[cells + 1][cells];
+        solution = new int[cells];
+    }
+
+    private void solve(int depth) {
+        int[] grid = levels[depth];
+        if (budget != null && !budget.step() || !propagator.fillHiddenSingles(grid)) return;
+
+        int best = propagator.mostConstrained(grid);
+        if (best < 0) {
+            // The level arrays are reused by later branches, keep a copy of the first solution
+            if (found++ == 0) System.arraycopy(grid, 0, solution, 0, cellCount);
+            return;
+        }
+
+        int[] next = levels[depth + 1];
+        for (int mask = grid[best]; mask != 0 && found < limit && (budget == null || !budget.isExceeded()); mask &= mask - 1) {
+            System.arraycopy(grid, 0, next, 0, cellCount);
+            if (propagator.assign(next, best, mask & -mask)) solve(depth + 1);
+        }
+    }
+}
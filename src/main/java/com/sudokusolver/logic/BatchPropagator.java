@@ -0,0 +1,33 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+
+// Naked and hidden single propagation over many boards at once. The candidate masks of a block of boards are
+// stored struct-of-arrays, masks[cell * boards + board], so one cell of neighbouring boards is contiguous.
+abstract class BatchPropagator {
+    final SudokuLayout layout;
+    final int[][] peers;
+    final int[][] units;
+
+    BatchPropagator(SudokuLayout layout) {
+        this.layout = layout;
+        peers = new int[layout.cellCount][];
+        for (int cell = 0; cell < layout.cellCount; ++cell) {
+            peers[cell] = layout.peers(cell);
+        }
+        units = new int[layout.unitCount][];
+        for (int unit = 0; unit < layout.unitCount; ++unit) {
+            units[unit] = layout.unit(unit);
+        }
+    }
+
+    // Boards handled together, boards passed to propagate() must be a multiple of it
+    abstract int lanes();
+
+    // Runs until no board changes. A contradiction shows up as an empty mask, boards are never rejected here.
+    abstract void propagate(int[] masks, int boards);
+
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBoard;
+import com.sudokusolver.model.SudokuBudget;
+import com.sudokusolver.model.SudokuMetrics;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Solver front-end that caches solutions by canonical form, so a puzzle that is a relabelled, permuted or
+// transposed copy of an earlier one is answered by mapping the cached solution back. Safe to share between threads.
+public class CachingSolver {
+    private final Map<String, int[]> cache;
+    private final ThreadLocal<SudokuCanonicalizer> canonicalizers = ThreadLocal.withInitial(SudokuCanonicalizer::new);
+    private final ThreadLocal<SudokuSolver> solvers = ThreadLocal.withInitial(SudokuSolver::new);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingSolver(int capacity) {
+        // Access ordered, so the eldest entry is the least recently used one
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                if (size() <= capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public SudokuResult solve(SudokuPuzzle puzzle) {
+        return solve(puzzle, null, null);
+    }
+
+    // Same contract as SudokuSolver.solve: metrics and budget may be null, malformed input gives an ERROR result.
+    // Only 9x9 puzzles go through the cache, other sizes are solved directly. A hit records nothing in metrics and
+    // spends no budget, a miss is solved with both.
+    public SudokuResult solve(SudokuPuzzle puzzle, SudokuMetrics metrics, SudokuBudget budget) {
+        if (puzzle.board.length != 9) return solvers.get().solve(puzzle, metrics, budget);
+
+        long start = System.nanoTime();
+        try {
+            return solveCached(puzzle, metrics, budget, start);
+        } catch (RuntimeException e) {
+            // Ragged rows or out of range digits, rejected by the canonicalizer or the board
+            return new SudokuResult(puzzle, SudokuResult.Status.ERROR, puzzle.board, System.nanoTime() - start, metrics);
+        }
+    }
+
+    private SudokuResult solveCached(SudokuPuzzle puzzle, SudokuMetrics metrics, SudokuBudget budget, long start) {
+        SudokuCanonicalizer.Form form = canonicalizers.get().canonicalize(puzzle.board);
+
+        int[] solution;
+        synchronized (cache) {
+            solution = cache.get(form.key);
+        }
+        if (solution != null) {
+            hits.increment();
+            return new SudokuResult(puzzle, SudokuResult.Status.SOLVED, form.toOriginal(solution), System.nanoTime() - start, metrics);
+        }
+
+        misses.increment();
+        int[] cells = form.cells();
+        int[][] canonicalGrid = new int[9][9];
+        for (int index = 0; index < 81; ++index) {
+            canonicalGrid[index / 9][index % 9] = cells[index];
+        }
+        SudokuBoard board = new SudokuBoard(canonicalGrid);
+        board.setMetrics(metrics);
+        int found = solvers.get().countSolutions(board, 1, budget);
+
+        solution = new int[81];
+        int[] remaining = new int[81];
+        board.exportState(solution, remaining);
+        if (found == 0) {
+            if (budget == null || !budget.isExceeded()) {
+                return new SudokuResult(puzzle, SudokuResult.Status.NO_SOLUTION, form.toOriginal(solution), System.nanoTime() - start, metrics);
+            }
+            // Nothing is cached for a puzzle the budget cut short, the stopped state is mapped back like a solution
+            return new SudokuResult(puzzle, SudokuResult.Status.TIMED_OUT, form.toOriginal(solution), System.nanoTime() - start,
+                    metrics, form.candidatesToOriginal(remaining));
+        }
+
+        synchronized (cache) {
+            cache.put(form.key, solution);
+        }
+        return new SudokuResult(puzzle, SudokuResult.Status.SOLVED, form.toOriginal(solution), System.nanoTime() - start, metrics);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBudget;
+import com.sudokusolver.model.SudokuCandidates;
+import com.sudokusolver.model.SudokuLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Speculative search for a single hard puzzle: the top levels of the search tree branch on the most constrained
+// cell as fork-join tasks over copies of the candidate masks, deeper levels run sequentially inside each task.
+// Once the limit is reached (the first solution for search()) every other branch stops at its next node.
+// Safe to share between threads.
+public class ParallelSearch implements SearchEngine {
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    public ParallelSearch() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    // Branches deeper than splitDepth are not forked any more
+    public ParallelSearch(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    @Override
+    public int count(int[] values, int[] candidates, int limit, SudokuBudget budget) {
+        SinglesPropagator propagator = new SinglesPropagator(SudokuLayout.forCellCount(values.length));
+        int[] grid = new int[values.length];
+        for (int index = 0; index < grid.length; ++index) {
+            grid[index] = values[index] != 0 ? SudokuCandidates.bit(values[index]) : candidates[index];
+        }
+        if (limit < 1 || !propagator.propagateSingles(grid)) return 0;
+
+        Search search = new Search(propagator, limit, budget);
+        pool.invoke(new Branch(search, grid, 0));
+        int[] solved = search.solution.get();
+        if (solved == null) return 0;
+        for (int index = 0; index < solved.length; ++index) {
+            values[index] = SudokuCandidates.first(solved[index]);
+        }
+        return Math.min(search.found.get(), limit);
+    }
+
+    // State shared by all branches of one count() call
+    private static final class Search {
+        final SinglesPropagator propagator;
+        final int limit;
+        final SudokuBudget budget;
+        final AtomicInteger found = new AtomicInteger();
+        final AtomicReference<int[]> solution = new AtomicReference<>();
+
+        Search(SinglesPropagator propagator, int limit, SudokuBudget budget) {
+            this.propagator = propagator;
+            this.limit = limit;
+            this.budget = budget;
+        }
+
+        boolean done() {
+            return found.get() >= limit || budget != null && budget.isExceeded();
+        }
+
+        // Takes a step for the node about to be expanded, false when the search should stop
+        boolean enter() {
+            return !done() && (budget == null || budget.step());
+        }
+
+        // The grid may be reused by the caller, so the first solution is kept as a copy
+        void record(int[] grid) {
+            if (found.incrementAndGet() == 1) solution.set(grid.clone());
+        }
+    }
+
+    @SuppressWarnings("serial") // never serialized, RecursiveAction is only Serializable through ForkJoinTask
+    private final class Branch extends RecursiveAction {
+        private final Search search;
+        private final int[] grid;
+        private final int depth;
+
+        Branch(Search search, int[] grid, int depth) {
+            this.search = search;
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth) {
+                searchSequentially(grid);
+                return;
+            }
+            SinglesPropagator propagator = search.propagator;
+            if (!search.enter() || !propagator.fillHiddenSingles(grid)) return;
+
+            int best = propagator.mostConstrained(grid);
+            if (best < 0) {
+                search.record(grid);
+                return;
+            }
+
+            List<Branch> branches = new ArrayList<>();
+            for (int mask = grid[best]; mask != 0; mask &= mask - 1) {
+                int[] next = grid.clone();
+                if (propagator.assign(next, best, mask & -mask)) {
+                    branches.add(new Branch(search, next, depth + 1));
+                }
+            }
+            invokeAll(branches);
+        }
+
+        private void searchSequentially(int[] current) {
+            SinglesPropagator propagator = search.propagator;
+            if (!search.enter() || !propagator.fillHiddenSingles(current)) return;
+
+            int best = propagator.mostConstrained(current);
+            if (best < 0) {
+                search.record(current);
+                return;
+            }
+
+            int[] next = new int[current.length];
+            for (int mask = current[best]; mask != 0 && !search.done(); mask &= mask - 1) {
+                System.arraycopy(current, 0, next, 0, current.length);
+                if (propagator.assign(next, best, mask & -mask)) searchSequentially(next);
+            }
+        }
+    }
+}
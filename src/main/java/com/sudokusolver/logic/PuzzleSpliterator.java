@@ -0,0 +1,153 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuPuzzle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Parses "id puzzle difficulty" lines straight from memory-mapped windows of the file. The puzzle holds size * size
+// symbols (see SudokuLayout.symbol), so its length gives the board size. Fields never run past the end of their line,
+// a missing difficulty is left empty and extra fields are ignored, the same as SudokuLoader.parse.
+// Owns the lines that start in [position, end), splits always land just after a newline.
+final class PuzzleSpliterator implements Spliterator<SudokuPuzzle> {
+    private static final long WINDOW_SIZE = 64L << 20;
+    private static final int MAX_TOKEN_LENGTH = 1024;
+    private static final long MIN_SPLIT_SIZE = 1L << 16;
+    private static final int AVERAGE_LINE_LENGTH = 100;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private long position;
+    private final long end;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+    PuzzleSpliterator(FileChannel channel, long start, long end) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SudokuPuzzle> action) {
+        // Skip blank lines, a line that starts at or after end belongs to the next range
+        long lineStart = position;
+        while (position < fileSize && byteAt(position) <= ' ') {
+            if (byteAt(position) == '\n') lineStart = position + 1;
+            position++;
+        }
+        if (lineStart >= end || position >= fileSize) return false;
+
+        String id = nextToken(lineStart, true);
+        skipSpaces();
+        long puzzleStart = position;
+        while (position < fileSize && byteAt(position) > ' ') position++;
+        int cellCount = (int) (position - puzzleStart);
+        if (cellCount == 0) throw malformed(lineStart);
+        int size;
+        try {
+            size = SudokuLayout.forCellCount(cellCount).size;
+        } catch (IllegalArgumentException e) {
+            throw malformed(lineStart);
+        }
+        int[][] board = new int[size][size];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = SudokuLayout.valueOf(byteAt(puzzleStart + cell));
+            if (value < 0 || value > size) throw malformed(lineStart);
+            board[cell / size][cell % size] = value;
+        }
+        String difficulty = nextToken(lineStart, false);
+        while (position < fileSize && byteAt(position) != '\n') position++;
+        if (position < fileSize) position++;
+        action.accept(new SudokuPuzzle(id, board, difficulty));
+        return true;
+    }
+
+    @Override
+    public Spliterator<SudokuPuzzle> trySplit() {
+        long remaining = end - position;
+        if (remaining < 2 * MIN_SPLIT_SIZE) return null;
+        try {
+            long split = nextLineStart(channel, position + remaining / 2);
+            if (split >= end) return null;
+            PuzzleSpliterator prefix = new PuzzleSpliterator(channel, position, split);
+            position = split;
+            return prefix;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(0, (end - position) / AVERAGE_LINE_LENGTH);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    // Offset of the first byte after the next newline at or after from, or the file size
+    static long nextLineStart(FileChannel channel, long from) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        long offset = from;
+        while (offset < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) break;
+            for (int i = 0; i < read; ++i) {
+                if (buffer.get(i) == '\n') return offset + i + 1;
+            }
+            offset += read;
+        }
+        return fileSize;
+    }
+
+    // Reads through the current window, mapping the next one from offset when it falls outside
+    private int byteAt(long offset) {
+        long relative = offset - windowStart;
+        if (window == null || relative < 0 || relative >= window.limit()) {
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, fileSize - offset));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            windowStart = offset;
+            relative = 0;
+        }
+        return window.get((int) relative);
+    }
+
+    // Skips spaces and tabs but stops at the end of the line
+    private void skipSpaces() {
+        while (position < fileSize && byteAt(position) <= ' ' && byteAt(position) != '\n') position++;
+    }
+
+    // Next field on the current line, "" when the line has no more fields and the field is optional
+    private String nextToken(long lineStart, boolean required) {
+        skipSpaces();
+        int length = 0;
+        while (position < fileSize && byteAt(position) > ' ') {
+            if (length == token.length) throw malformed(lineStart);
+            token[length++] = (byte) byteAt(position++);
+        }
+        if (length == 0 && required) throw malformed(lineStart);
+        return new String(token, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private IllegalArgumentException malformed(long lineStart) {
+        return new IllegalArgumentException("Malformed puzzle line at byte " + lineStart);
+    }
+}
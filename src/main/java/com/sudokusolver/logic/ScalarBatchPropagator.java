@@ -0,0 +1,62 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+
+// Fallback when jdk.incubator.vector is not available, one board at a time over the same layout
+final class ScalarBatchPropagator extends BatchPropagator {
+    ScalarBatchPropagator(SudokuLayout layout) {
+        super(layout);
+    }
+
+    @Override
+    int lanes() {
+        return 1;
+    }
+
+    @Override
+    void propagate(int[] masks, int boards) {
+        for (int board = 0; board < boards; ++board) {
+            while (nakedSingles(masks, boards, board) | hiddenSingles(masks, boards, board)) ;
+        }
+    }
+
+    private boolean nakedSingles(int[] masks, int boards, int board) {
+        boolean changed = false;
+        for (int cell = 0; cell < peers.length; ++cell) {
+            int mask = masks[cell * boards + board];
+            if (mask == 0 || (mask & (mask - 1)) != 0) continue;
+            for (int peer : peers[cell]) {
+                int slot = peer * boards + board;
+                if ((masks[slot] & mask) != 0) {
+                    masks[slot] &= ~mask;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean hiddenSingles(int[] masks, int boards, int board) {
+        boolean changed = false;
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                int mask = masks[cell * boards + board];
+                twice |= once & mask;
+                once |= mask;
+            }
+            int hidden = once & ~twice;
+            if (hidden == 0) continue;
+            for (int cell : unit) {
+                int slot = cell * boards + board;
+                int hit = masks[slot] & hidden;
+                if (hit != 0 && hit != masks[slot]) {
+                    masks[slot] = hit;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+}
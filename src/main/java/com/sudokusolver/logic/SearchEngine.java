@@ -0,0 +1,23 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBudget;
+
+// Completes a board that the logical techniques could not finish
+public interface SearchEngine {
+    // values[i] is the digit of cell i (row * size + col) or 0, candidates[i] the candidate mask of an empty cell,
+    // the board size follows from the array length. Fills every empty cell of values and returns true,
+    // or returns false when no solution exists.
+    default boolean search(int[] values, int[] candidates) {
+        return count(values, candidates, 1) > 0;
+    }
+
+    // Counts solutions of the same input, stopping as soon as limit is reached, so 2 is enough to tell a unique
+    // puzzle apart. When the result is positive values holds one of the solutions.
+    default int count(int[] values, int[] candidates, int limit) {
+        return count(values, candidates, limit, null);
+    }
+
+    // Same, but every search node takes a step from the budget (null for none). When the budget runs out the
+    // count found so far is returned and budget.isExceeded() tells it apart from a complete count.
+    int count(int[] values, int[] candidates, int limit, SudokuBudget budget);
+}
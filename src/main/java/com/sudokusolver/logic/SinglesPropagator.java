@@ -0,0 +1,104 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+
+// Naked and hidden single propagation on a flat array of candidate masks, where a solved cell holds a single bit.
+// Shared by the search engines; stateless apart from the layout tables, so one instance can serve many threads.
+final class SinglesPropagator {
+    final SudokuLayout layout;
+    private final int cellCount;
+    private final int[][] peers;
+
+    SinglesPropagator(SudokuLayout layout) {
+        this.layout = layout;
+        this.cellCount = layout.cellCount;
+        peers = new int[cellCount][];
+        for (int index = 0; index < cellCount; ++index) {
+            peers[index] = layout.peers(index);
+        }
+    }
+
+    // Propagates every cell that is already down to a single candidate
+    boolean propagateSingles(int[] grid) {
+        for (int index = 0; index < cellCount; ++index) {
+            int mask = grid[index];
+            if (mask == 0) return false;
+            if ((mask & (mask - 1)) == 0) {
+                for (int peer : peers[index]) {
+                    if (!eliminate(grid, peer, mask)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean assign(int[] grid, int index, int bit) {
+        grid[index] = bit;
+        for (int peer : peers[index]) {
+            if (!eliminate(grid, peer, bit)) return false;
+        }
+        return true;
+    }
+
+    // Removes the bit from the cell; a cell left with one candidate passes it on to its peers
+    boolean eliminate(int[] grid, int index, int bit) {
+        int mask = grid[index];
+        if ((mask & bit) == 0) return true;
+        mask ^= bit;
+        grid[index] = mask;
+        if (mask == 0) return false;
+        if ((mask & (mask - 1)) == 0) {
+            for (int peer : peers[index]) {
+                if (!eliminate(grid, peer, mask)) return false;
+            }
+        }
+        return true;
+    }
+
+    // Assigns every digit that fits in only one cell of a unit, until nothing changes
+    boolean fillHiddenSingles(int[] grid) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int unit = 0; unit < layout.unitCount; ++unit) {
+                int[] cells = layout.unit(unit);
+                int once = 0;
+                int twice = 0;
+                for (int index : cells) {
+                    int mask = grid[index];
+                    twice |= once & mask;
+                    once |= mask;
+                }
+                if (once != layout.allCandidates) return false;
+                for (int hidden = once & ~twice; hidden != 0; hidden &= hidden - 1) {
+                    int bit = hidden & -hidden;
+                    for (int index : cells) {
+                        if ((grid[index] & bit) != 0) {
+                            if (grid[index] != bit) {
+                                if (!assign(grid, index, bit)) return false;
+                                changed = true;
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // The unsolved cell with the fewest candidates, -1 when every cell is solved
+    int mostConstrained(int[] grid) {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int index = 0; index < cellCount; ++index) {
+            int count = Integer.bitCount(grid[index]);
+            if (count > 1 && count < bestCount) {
+                best = index;
+                bestCount = count;
+                if (count == 2) break;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,217 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuPuzzle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Packed binary puzzle file with O(1) access to puzzle N.
+// Layout: header | grids, 41 bytes each at 4 bits per cell | index, one long per puzzle pointing into the side table |
+// side table, per puzzle a length-prefixed id and difficulty.
+public class SudokuArchive implements AutoCloseable {
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    public static final int GRID_SIZE = 41;
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int count;
+    private final long indexOffset;
+    private final long sideTableOffset;
+
+    private SudokuArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; ++i) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        }
+        if (size < HEADER_SIZE || readInt(0) != MAGIC) throw new IOException("Not a sudoku archive");
+        if (readInt(4) != VERSION) throw new IOException("Unsupported archive version " + readInt(4));
+        count = readInt(8);
+        indexOffset = readLong(16);
+        sideTableOffset = readLong(24);
+    }
+
+    public static SudokuArchive open(String filename) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        try {
+            return new SudokuArchive(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Converts a text file of "id puzzle difficulty" lines, returns the number of puzzles written
+    public static int convert(String textFile, String archiveFile) throws IOException {
+        try (Stream<SudokuPuzzle> puzzles = SudokuLoader.stream(textFile)) {
+            return write(puzzles, Path.of(archiveFile));
+        }
+    }
+
+    public static int write(Stream<SudokuPuzzle> puzzles, Path archiveFile) throws IOException {
+        Path sideTable = Files.createTempFile(archiveFile.toAbsolutePath().getParent(), "sudoku", ".side");
+        Path index = Files.createTempFile(archiveFile.toAbsolutePath().getParent(), "sudoku", ".index");
+        try {
+            int count = 0;
+            long sideOffset = 0;
+            byte[] grid = new byte[GRID_SIZE];
+            try (FileChannel out = FileChannel.open(archiveFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.position(HEADER_SIZE);
+                try (OutputStream grids = new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16);
+                     DataOutputStream sides = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(sideTable), 1 << 16));
+                     DataOutputStream offsets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index), 1 << 16))) {
+                    for (SudokuPuzzle puzzle : (Iterable<SudokuPuzzle>) puzzles::iterator) {
+                        pack(puzzle.board, grid);
+                        grids.write(grid);
+                        offsets.writeLong(sideOffset);
+                        sideOffset += writeString(sides, puzzle.id) + writeString(sides, puzzle.difficulty);
+                        count++;
+                    }
+                }
+            }
+
+            // Append index and side table, then fill in the header
+            try (FileChannel out = FileChannel.open(archiveFile, StandardOpenOption.WRITE);
+                 FileChannel indexIn = FileChannel.open(index, StandardOpenOption.READ);
+                 FileChannel sideIn = FileChannel.open(sideTable, StandardOpenOption.READ)) {
+                long indexOffset = HEADER_SIZE + (long) count * GRID_SIZE;
+                long sideTableOffset = indexOffset + (long) count * Long.BYTES;
+                transferAll(indexIn, out, indexOffset);
+                transferAll(sideIn, out, sideTableOffset);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).putLong(indexOffset).putLong(sideTableOffset).flip();
+                while (header.hasRemaining()) out.write(header, header.position());
+            }
+            return count;
+        } finally {
+            Files.deleteIfExists(sideTable);
+            Files.deleteIfExists(index);
+        }
+    }
+
+    private static void transferAll(FileChannel from, FileChannel to, long position) throws IOException {
+        long size = from.size();
+        for (long done = 0; done < size; ) {
+            done += to.transferFrom(from, position + done, size - done);
+        }
+    }
+
+    private static int writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        return Short.BYTES + bytes.length;
+    }
+
+    // Two cells per byte, the even cell in the high nibble
+    public static void pack(int[][] board, byte[] grid) {
+        if (board.length != 9) throw new IllegalArgumentException("Archives hold 9x9 grids only, got " + board.length + "x" + board.length);
+        for (int i = 0; i < GRID_SIZE; ++i) {
+            int first = 2 * i;
+            int second = first + 1;
+            int high = board[first / 9][first % 9];
+            int low = second < 81 ? board[second / 9][second % 9] : 0;
+            grid[i] = (byte) (high << 4 | low);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Reads the cells of puzzle n into values, indexed by row * 9 + col
+    public void readCells(int n, int[] values) {
+        long offset = HEADER_SIZE + (long) checkIndex(n) * GRID_SIZE;
+        MappedByteBuffer segment = segments[(int) (offset / SEGMENT_SIZE)];
+        int position = (int) (offset % SEGMENT_SIZE);
+        boolean straddles = position + GRID_SIZE > segment.limit();
+        for (int i = 0; i < GRID_SIZE; ++i) {
+            int packed = straddles ? readByte(offset + i) : segment.get(position + i) & 0xFF;
+            values[2 * i] = packed >>> 4;
+            if (2 * i + 1 < 81) values[2 * i + 1] = packed & 0xF;
+        }
+    }
+
+    public SudokuPuzzle get(int n) {
+        int[] values = new int[81];
+        readCells(n, values);
+        int[][] board = new int[9][9];
+        for (int index = 0; index < 81; ++index) {
+            board[index / 9][index % 9] = values[index];
+        }
+
+        long side = sideTableOffset + readLong(indexOffset + (long) n * Long.BYTES);
+        int idLength = readShort(side);
+        String id = readString(side + Short.BYTES, idLength);
+        long difficultyOffset = side + Short.BYTES + idLength;
+        String difficulty = readString(difficultyOffset + Short.BYTES, readShort(difficultyOffset));
+        return new SudokuPuzzle(id, board, difficulty);
+    }
+
+    // Puzzles [from, to), disjoint ranges can be handed to separate workers
+    public Stream<SudokuPuzzle> range(int from, int to) {
+        if (from < 0 || to > count || from > to) throw new IndexOutOfBoundsException("Range " + from + ".." + to + " of " + count);
+        return IntStream.range(from, to).mapToObj(this::get);
+    }
+
+    public Stream<SudokuPuzzle> stream() {
+        return range(0, count);
+    }
+
+    private int checkIndex(int n) {
+        if (n < 0 || n >= count) throw new IndexOutOfBoundsException("Puzzle " + n + " of " + count);
+        return n;
+    }
+
+    private int readByte(long offset) {
+        return segments[(int) (offset / SEGMENT_SIZE)].get((int) (offset % SEGMENT_SIZE)) & 0xFF;
+    }
+
+    private int readShort(long offset) {
+        return readByte(offset) << 8 | readByte(offset + 1);
+    }
+
+    private int readInt(long offset) {
+        return readShort(offset) << 16 | readShort(offset + 2);
+    }
+
+    private long readLong(long offset) {
+        return (long) readInt(offset) << 32 | (readInt(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private String readString(long offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) readByte(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
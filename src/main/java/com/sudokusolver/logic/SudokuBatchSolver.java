@@ -0,0 +1,239 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBudget;
+import com.sudokusolver.model.SudokuMetrics;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Solves independent puzzles in chunks across an executor, results always come back in input order
+public class SudokuBatchSolver implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private volatile boolean collectMetrics;
+    private volatile Duration timeout;
+    private volatile long maxSteps = SudokuBudget.UNLIMITED;
+    private volatile SudokuSolutionStore store;
+    private volatile RuntimeException storeFailure; // first store error, the store is left alone after it
+    private final SudokuMetrics totals = new SudokuMetrics();
+
+    public SudokuBatchSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SudokuBatchSolver(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_CHUNK_SIZE, parallelism * 4);
+    }
+
+    // Runs on a caller supplied executor, e.g. a shared ForkJoinPool or Executors.newVirtualThreadPerTaskExecutor().
+    // The executor is not shut down by close().
+    public SudokuBatchSolver(ExecutorService executor, int chunkSize) {
+        this(executor, false, chunkSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    private SudokuBatchSolver(ExecutorService executor, boolean ownsExecutor, int chunkSize, int maxChunksInFlight) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    public List<SudokuResult> solveAll(List<SudokuPuzzle> puzzles) {
+        List<Future<List<SudokuResult>>> futures = new ArrayList<>();
+        for (int start = 0; start < puzzles.size(); start += chunkSize) {
+            List<SudokuPuzzle> chunk = puzzles.subList(start, Math.min(puzzles.size(), start + chunkSize));
+            futures.add(executor.submit(() -> solveChunk(chunk)));
+        }
+
+        List<SudokuResult> results = new ArrayList<>(puzzles.size());
+        for (Future<List<SudokuResult>> future : futures) {
+            results.addAll(await(future));
+        }
+        return results;
+    }
+
+    // Solution counts in input order, each stopping at limit. Malformed puzzles count as -1.
+    public int[] countAll(List<SudokuPuzzle> puzzles, int limit) {
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int start = 0; start < puzzles.size(); start += chunkSize) {
+            List<SudokuPuzzle> chunk = puzzles.subList(start, Math.min(puzzles.size(), start + chunkSize));
+            futures.add(executor.submit(() -> countChunk(chunk, limit)));
+        }
+
+        int[] counts = new int[puzzles.size()];
+        int offset = 0;
+        for (Future<int[]> future : futures) {
+            int[] chunkCounts = await(future);
+            System.arraycopy(chunkCounts, 0, counts, offset, chunkCounts.length);
+            offset += chunkCounts.length;
+        }
+        return counts;
+    }
+
+    // Lazily solves a stream of puzzles, keeping only a bounded number of chunks queued at a time
+    public Stream<SudokuResult> solveAll(Stream<SudokuPuzzle> puzzles) {
+        Iterator<SudokuPuzzle> source = puzzles.iterator();
+        Iterator<SudokuResult> results = new Iterator<>() {
+            private final ArrayDeque<Future<List<SudokuResult>>> pending = new ArrayDeque<>();
+            private Iterator<SudokuResult> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    submitChunks();
+                    if (pending.isEmpty()) return false;
+                    current = await(pending.poll()).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public SudokuResult next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+
+            private void submitChunks() {
+                while (pending.size() < maxChunksInFlight && source.hasNext()) {
+                    List<SudokuPuzzle> chunk = new ArrayList<>(chunkSize);
+                    while (chunk.size() < chunkSize && source.hasNext()) chunk.add(source.next());
+                    pending.add(executor.submit(() -> solveChunk(chunk)));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(puzzles::close);
+    }
+
+    // Bounds every puzzle, those that run out are reported as TIMED_OUT. A null timeout means no deadline.
+    public void setBudget(Duration timeout, long maxSteps) {
+        this.timeout = timeout;
+        this.maxSteps = maxSteps;
+    }
+
+    // Answer puzzles from the store when it has them and, if it is writable, add the ones that had to be solved.
+    // Stored answers carry no metrics. Null turns it off again.
+    public void setStore(SudokuSolutionStore store) {
+        this.store = store;
+        storeFailure = null;
+    }
+
+    // The error that made the batch stop using the store, e.g. a full table or an I/O error while it grew.
+    // Puzzles are still solved normally after it, null when the store never failed.
+    public RuntimeException getStoreFailure() {
+        return storeFailure;
+    }
+
+    // Attach per-puzzle metrics to every result and merge them into getMetrics()
+    public void setCollectMetrics(boolean collectMetrics) {
+        this.collectMetrics = collectMetrics;
+    }
+
+    public SudokuMetrics getMetrics() {
+        synchronized (totals) {
+            return totals.snapshot();
+        }
+    }
+
+    // One solver per chunk, so its scratch state is never shared between threads
+    private List<SudokuResult> solveChunk(List<SudokuPuzzle> chunk) {
+        SudokuSolver solver = new SudokuSolver();
+        boolean withMetrics = collectMetrics;
+        Duration puzzleTimeout = timeout;
+        long puzzleSteps = maxSteps;
+        boolean budgeted = puzzleTimeout != null || puzzleSteps != SudokuBudget.UNLIMITED;
+        SudokuSolutionStore solutions = store;
+        SudokuMetrics chunkTotals = withMetrics ? new SudokuMetrics() : null;
+        List<SudokuResult> results = new ArrayList<>(chunk.size());
+        for (SudokuPuzzle puzzle : chunk) {
+            SudokuResult stored = storeFailure == null ? lookupStored(solutions, puzzle) : null;
+            if (stored != null) {
+                results.add(stored);
+                continue;
+            }
+            SudokuBudget budget = budgeted ? SudokuBudget.start(puzzleTimeout, puzzleSteps) : null;
+            SudokuResult result = solver.solve(puzzle, withMetrics ? new SudokuMetrics() : null, budget);
+            if (withMetrics) chunkTotals.merge(result.metrics);
+            if (storeFailure == null && solutions != null && solutions.isWritable()) putStored(solutions, result);
+            results.add(result);
+        }
+        if (withMetrics) {
+            synchronized (totals) {
+                totals.merge(chunkTotals);
+            }
+        }
+        return results;
+    }
+
+    // A failing store only costs the cache, the puzzle is solved either way
+    private SudokuResult lookupStored(SudokuSolutionStore solutions, SudokuPuzzle puzzle) {
+        if (solutions == null) return null;
+        try {
+            return solutions.lookup(puzzle);
+        } catch (RuntimeException e) {
+            storeFailed(e);
+            return null;
+        }
+    }
+
+    private void putStored(SudokuSolutionStore solutions, SudokuResult result) {
+        try {
+            solutions.put(result);
+        } catch (RuntimeException e) {
+            storeFailed(e);
+        }
+    }
+
+    private synchronized void storeFailed(RuntimeException e) {
+        if (storeFailure == null) storeFailure = e;
+    }
+
+    private static int[] countChunk(List<SudokuPuzzle> chunk, int limit) {
+        SudokuSolver solver = new SudokuSolver();
+        int[] counts = new int[chunk.size()];
+        for (int i = 0; i < counts.length; ++i) {
+            try {
+                counts[i] = solver.countSolutions(chunk.get(i).board, limit);
+            } catch (RuntimeException e) {
+                counts[i] = -1;
+            }
+        }
+        return counts;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch results", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch chunk failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) executor.shutdown();
+    }
+}
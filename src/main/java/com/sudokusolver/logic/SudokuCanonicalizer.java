@@ -0,0 +1,245 @@
+package com.sudokusolver.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Canonical form of a grid under the sudoku symmetry group: transposition, band and stack permutations, row and
+// column permutations inside them, and digit relabelling. Rows and columns are first ordered by invariant keys
+// (clue counts, refined by the counts of the crossing lines), then the lexicographically smallest relabelled grid
+// among the orders that tie on those keys is taken. Isomorphic grids tie in the same way, so they share the result.
+// Not thread safe, keeps scratch state per instance.
+public class SudokuCanonicalizer {
+    // Grids with more tied orders than this (very few clues, highly symmetric) keep their own layout as the key
+    private static final int MAX_TRANSFORMS = 20_000;
+    private static final int[] IDENTITY = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+    private static final int[][] PERMUTATIONS_3 = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+
+    // Result of canonicalize(): the canonical cells plus the transform that produced them
+    public static final class Form {
+        public final String key;
+        final boolean transposed;
+        final int[] rowOrder;
+        final int[] columnOrder;
+        final int[] labels; // labels[original digit] = canonical digit
+
+        Form(String key, boolean transposed, int[] rowOrder, int[] columnOrder, int[] labels) {
+            this.key = key;
+            this.transposed = transposed;
+            this.rowOrder = rowOrder;
+            this.columnOrder = columnOrder;
+            this.labels = labels;
+        }
+
+        // Canonical cell values, indexed by row * 9 + col
+        public int[] cells() {
+            int[] cells = new int[81];
+            for (int i = 0; i < 81; ++i) {
+                cells[i] = key.charAt(i) - '0';
+            }
+            return cells;
+        }
+
+        // Maps a grid in canonical coordinates, e.g. the canonical solution, back onto the original puzzle
+        public int[][] toOriginal(int[] canonical) {
+            int[] digits = digits();
+            int[][] grid = new int[9][9];
+            for (int r = 0; r < 9; ++r) {
+                for (int c = 0; c < 9; ++c) {
+                    int row = rowOrder[r];
+                    int col = columnOrder[c];
+                    int value = digits[canonical[r * 9 + c]];
+                    if (transposed) grid[col][row] = value;
+                    else grid[row][col] = value;
+                }
+            }
+            return grid;
+        }
+
+        // Same for candidate masks (bit n - 1 for digit n), the result is indexed by row * 9 + col of the original
+        public int[] candidatesToOriginal(int[] canonical) {
+            int[] digits = digits();
+            int[] masks = new int[81];
+            for (int r = 0; r < 9; ++r) {
+                for (int c = 0; c < 9; ++c) {
+                    int mask = 0;
+                    for (int bits = canonical[r * 9 + c]; bits != 0; bits &= bits - 1) {
+                        mask |= 1 << (digits[Integer.numberOfTrailingZeros(bits) + 1] - 1);
+                    }
+                    int row = rowOrder[r];
+                    int col = columnOrder[c];
+                    masks[transposed ? col * 9 + row : row * 9 + col] = mask;
+                }
+            }
+            return masks;
+        }
+
+        // digits[canonical label] = original digit, 0 stays 0
+        private int[] digits() {
+            int[] digits = new int[10];
+            for (int digit = 1; digit <= 9; ++digit) {
+                digits[labels[digit]] = digit;
+            }
+            return digits;
+        }
+    }
+
+    private final int[][] source = new int[2][81]; // plain and transposed cells
+    private final int[] best = new int[81];
+    private final int[] labels = new int[10];
+    private final long[] rowKeys = new long[9];
+    private final long[] columnKeys = new long[9];
+
+    private boolean bestTransposed;
+    private int[] bestRowOrder;
+    private int[] bestColumnOrder;
+    private final int[] bestLabels = new int[10];
+
+    // The scratch arrays above are shared by every canonicalize() call on this instance
+    public SudokuCanonicalizer() {
+    }
+
+    public Form canonicalize(int[][] grid) {
+        if (grid.length != 9) throw new IllegalArgumentException("Canonical forms are defined for 9x9 grids only");
+        for (int r = 0; r < 9; ++r) {
+            for (int c = 0; c < 9; ++c) {
+                source[0][r * 9 + c] = grid[r][c];
+                source[1][c * 9 + r] = grid[r][c];
+            }
+        }
+        Arrays.fill(best, 10);
+
+        List<List<int[]>> rowOrders = new ArrayList<>(2);
+        List<List<int[]>> columnOrders = new ArrayList<>(2);
+        long transforms = 0;
+        for (int t = 0; t < 2; ++t) {
+            lineKeys(source[t], rowKeys, columnKeys);
+            rowOrders.add(orders(rowKeys));
+            columnOrders.add(orders(columnKeys));
+            transforms += (long) rowOrders.get(t).size() * columnOrders.get(t).size();
+        }
+        if (transforms > MAX_TRANSFORMS) return identity(grid);
+
+        for (int t = 0; t < 2; ++t) {
+            for (int[] rows : rowOrders.get(t)) {
+                for (int[] columns : columnOrders.get(t)) {
+                    compare(t, rows, columns);
+                }
+            }
+        }
+
+        // Digits missing from the puzzle get the remaining labels in increasing order
+        int[] finalLabels = bestLabels.clone();
+        int next = 1;
+        for (int digit = 1; digit <= 9; ++digit) {
+            if (finalLabels[digit] != 0) next = Math.max(next, finalLabels[digit] + 1);
+        }
+        for (int digit = 1; digit <= 9; ++digit) {
+            if (finalLabels[digit] == 0) finalLabels[digit] = next++;
+        }
+
+        char[] key = new char[81];
+        for (int i = 0; i < 81; ++i) {
+            key[i] = (char) ('0' + best[i]);
+        }
+        return new Form(new String(key), bestTransposed, bestRowOrder, bestColumnOrder, finalLabels);
+    }
+
+    // Untransformed grid, marked so it can never equal a canonical key
+    private static Form identity(int[][] grid) {
+        char[] key = new char[82];
+        for (int i = 0; i < 81; ++i) {
+            key[i] = (char) ('0' + grid[i / 9][i % 9]);
+        }
+        key[81] = '*';
+        int[] labels = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        return new Form(new String(key), false, IDENTITY, IDENTITY, labels);
+    }
+
+    // Key of a line = its clue count, then the sum of squared clue counts of the lines crossing it at its clues
+    private static void lineKeys(int[] cells, long[] rowKeys, long[] columnKeys) {
+        int[] rowCounts = new int[9];
+        int[] columnCounts = new int[9];
+        for (int i = 0; i < 81; ++i) {
+            if (cells[i] != 0) {
+                rowCounts[i / 9]++;
+                columnCounts[i % 9]++;
+            }
+        }
+        Arrays.fill(rowKeys, 0);
+        Arrays.fill(columnKeys, 0);
+        for (int i = 0; i < 81; ++i) {
+            if (cells[i] != 0) {
+                rowKeys[i / 9] += columnCounts[i % 9] * columnCounts[i % 9];
+                columnKeys[i % 9] += rowCounts[i / 9] * rowCounts[i / 9];
+            }
+        }
+        for (int line = 0; line < 9; ++line) {
+            rowKeys[line] += rowCounts[line] * 1024L;
+            columnKeys[line] += columnCounts[line] * 1024L;
+        }
+    }
+
+    // Every line order that sorts bands, then lines inside each band, by descending key; only ties are permuted
+    private static List<int[]> orders(long[] keys) {
+        long[] bandKeys = new long[3];
+        for (int band = 0; band < 3; ++band) {
+            long a = keys[band * 3], b = keys[band * 3 + 1], c = keys[band * 3 + 2];
+            long high = Math.max(a, Math.max(b, c));
+            long low = Math.min(a, Math.min(b, c));
+            long middle = a + b + c - high - low;
+            bandKeys[band] = (high << 28) | (middle << 14) | low;
+        }
+
+        List<int[]> result = new ArrayList<>();
+        for (int[] bands : PERMUTATIONS_3) {
+            if (!descending(bandKeys, bands, 0)) continue;
+            for (int[] first : PERMUTATIONS_3) {
+                if (!descending(keys, first, bands[0] * 3)) continue;
+                for (int[] second : PERMUTATIONS_3) {
+                    if (!descending(keys, second, bands[1] * 3)) continue;
+                    for (int[] third : PERMUTATIONS_3) {
+                        if (!descending(keys, third, bands[2] * 3)) continue;
+                        int[][] inside = {first, second, third};
+                        int[] order = new int[9];
+                        for (int line = 0; line < 9; ++line) {
+                            order[line] = bands[line / 3] * 3 + inside[line / 3][line % 3];
+                        }
+                        result.add(order);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean descending(long[] keys, int[] permutation, int offset) {
+        return keys[offset + permutation[0]] >= keys[offset + permutation[1]]
+                && keys[offset + permutation[1]] >= keys[offset + permutation[2]];
+    }
+
+    // Relabels the grid under the given orders, keeping it as the new best when it is not larger
+    private void compare(int t, int[] rows, int[] columns) {
+        int[] cells = source[t];
+        Arrays.fill(labels, 0);
+        int next = 1;
+        boolean smaller = false;
+        for (int i = 0; i < 81; ++i) {
+            int digit = cells[rows[i / 9] * 9 + columns[i % 9]];
+            int label = 0;
+            if (digit != 0) {
+                if (labels[digit] == 0) labels[digit] = next++;
+                label = labels[digit];
+            }
+            if (!smaller) {
+                if (label > best[i]) return;
+                if (label < best[i]) smaller = true;
+            }
+            if (smaller) best[i] = label;
+        }
+        bestTransposed = t == 1;
+        bestRowOrder = rows;
+        bestColumnOrder = columns;
+        System.arraycopy(labels, 0, bestLabels, 0, 10);
+    }
+}
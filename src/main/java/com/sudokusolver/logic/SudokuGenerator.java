@@ -0,0 +1,144 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuCandidates;
+import com.sudokusolver.model.SudokuDifficulty;
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuPuzzle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Builds random puzzles with a unique solution: a random full grid, then clues removed in random order as long as
+// the puzzle stays unique, then clues put back until it fits the target difficulty. Puzzle n depends only on the
+// seed and n, so the parallel output is reproducible.
+public class SudokuGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SudokuLayout layout;
+    private final long seed;
+    private final ThreadLocal<BacktrackingSearch> searches = ThreadLocal.withInitial(BacktrackingSearch::new);
+
+    public SudokuGenerator(long seed) {
+        this(9, seed);
+    }
+
+    public SudokuGenerator(int size, long seed) {
+        this.layout = SudokuLayout.of(size);
+        this.seed = seed;
+    }
+
+    // Puzzles 0 to count - 1 of the target difficulty, or of any difficulty when target is null, generated on the common pool
+    public Stream<SudokuPuzzle> generate(long count, SudokuDifficulty target) {
+        return LongStream.range(0, count).parallel().mapToObj(n -> puzzle(n, target));
+    }
+
+    // Puzzle number n of the sequence, the same for every call with the same seed
+    public SudokuPuzzle puzzle(long n, SudokuDifficulty target) {
+        SplittableRandom random = new SplittableRandom(seed + n * GOLDEN_GAMMA);
+        while (true) {
+            int[] puzzle = removeClues(fullGrid(random), random, target);
+            int[][] grid = toGrid(puzzle);
+            SudokuDifficulty difficulty = SudokuGrader.grade(grid);
+            // Putting clues back can overshoot into an easier grade, then start over
+            if (target == null || difficulty == target) return new SudokuPuzzle("g" + n, grid, difficulty.label());
+        }
+    }
+
+    // Writes "id puzzle difficulty" lines that SudokuLoader reads back, returns the number of lines
+    public static long write(Stream<SudokuPuzzle> puzzles, Path file) throws IOException {
+        long[] count = {0};
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            StringBuilder line = new StringBuilder();
+            puzzles.forEachOrdered(puzzle -> {
+                line.setLength(0);
+                line.append(puzzle.id).append(' ');
+                for (int[] row : puzzle.board) {
+                    for (int value : row) line.append(SudokuLayout.symbol(value));
+                }
+                line.append(' ').append(puzzle.difficulty).append('\n');
+                try {
+                    out.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    // Shuffles the diagonal boxes, which never constrain each other, and lets the search complete the grid
+    private int[] fullGrid(SplittableRandom random) {
+        int size = layout.size;
+        int[] values = new int[layout.cellCount];
+        int[] digits = new int[size];
+        for (int box = 0; box < size; box += layout.boxSize + 1) {
+            for (int i = 0; i < size; ++i) digits[i] = i + 1;
+            shuffle(digits, random);
+            int[] cells = layout.unit(2 * size + box);
+            for (int i = 0; i < size; ++i) values[cells[i]] = digits[i];
+        }
+        int[] candidates = new int[layout.cellCount];
+        Arrays.fill(candidates, layout.allCandidates);
+        searches.get().search(values, candidates);
+        return values;
+    }
+
+    private int[] removeClues(int[] solution, SplittableRandom random, SudokuDifficulty target) {
+        int[] puzzle = solution.clone();
+        int[] order = new int[layout.cellCount];
+        for (int i = 0; i < order.length; ++i) order[i] = i;
+        shuffle(order, random);
+
+        for (int cell : order) {
+            int value = puzzle[cell];
+            puzzle[cell] = 0;
+            if (!isUnique(puzzle, cell, value)) puzzle[cell] = value;
+        }
+        if (target == null || target == SudokuDifficulty.EXPERT) return puzzle;
+
+        // Grading on every removal is far slower than the search, so put clues back until the target techniques suffice
+        for (int cell : order) {
+            if (SudokuGrader.solvableWith(toGrid(puzzle), target)) break;
+            puzzle[cell] = solution[cell];
+        }
+        return puzzle;
+    }
+
+    // The puzzle was unique with the clue, so it stays unique unless some solution puts another value in the cell
+    private boolean isUnique(int[] puzzle, int cell, int value) {
+        int[] values = puzzle.clone();
+        int[] candidates = new int[values.length];
+        Arrays.fill(candidates, layout.allCandidates);
+        candidates[cell] &= ~SudokuCandidates.bit(value);
+        return !searches.get().search(values, candidates);
+    }
+
+    private int[][] toGrid(int[] values) {
+        int size = layout.size;
+        int[][] grid = new int[size][size];
+        for (int index = 0; index < values.length; ++index) {
+            grid[index / size][index % size] = values[index];
+        }
+        return grid;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBoard;
+import com.sudokusolver.model.SudokuDifficulty;
+import com.sudokusolver.model.SudokuTechnique;
+
+import java.util.EnumSet;
+
+// Rates a puzzle by the smallest technique set that finishes it, escalating on one board
+public final class SudokuGrader {
+    private static final EnumSet<SudokuTechnique> EASY = EnumSet.of(
+            SudokuTechnique.SINGLE_CANDIDATE,
+            SudokuTechnique.HIDDEN_SINGLE);
+    private static final EnumSet<SudokuTechnique> MEDIUM = EnumSet.of(
+            SudokuTechnique.SINGLE_CANDIDATE,
+            SudokuTechnique.HIDDEN_SINGLE,
+            SudokuTechnique.NAKED_PAIRS,
+            SudokuTechnique.BOX_LINE_REDUCTION,
+            SudokuTechnique.CLAIMING,
+            SudokuTechnique.HIDDEN_PAIRS,
+            SudokuTechnique.NAKED_TRIPLES);
+    private static final EnumSet<SudokuTechnique> HARD = EnumSet.complementOf(EnumSet.of(SudokuTechnique.SEARCH));
+
+    private SudokuGrader() {
+    }
+
+    // EXPERT covers everything logic cannot finish, including puzzles without a unique solution
+    public static SudokuDifficulty grade(int[][] grid) {
+        SudokuBoard board = new SudokuBoard(grid);
+        for (SudokuDifficulty level : SudokuDifficulty.values()) {
+            if (level == SudokuDifficulty.EXPERT) break;
+            enable(board, level);
+            board.solve();
+            if (board.isSolved() && !board.hasConflicts()) return level;
+        }
+        return SudokuDifficulty.EXPERT;
+    }
+
+    // True when the techniques of the level finish the puzzle, which also proves the solution is unique
+    public static boolean solvableWith(int[][] grid, SudokuDifficulty level) {
+        if (level == SudokuDifficulty.EXPERT) throw new IllegalArgumentException("EXPERT has no logical technique set");
+        SudokuBoard board = new SudokuBoard(grid);
+        enable(board, level);
+        board.solve();
+        return board.isSolved() && !board.hasConflicts();
+    }
+
+    private static void enable(SudokuBoard board, SudokuDifficulty level) {
+        EnumSet<SudokuTechnique> techniques = level == SudokuDifficulty.EASY ? EASY : level == SudokuDifficulty.MEDIUM ? MEDIUM : HARD;
+        for (SudokuTechnique technique : HARD) {
+            board.setEnabled(technique, techniques.contains(technique));
+        }
+    }
+}
@@ -1,44 +1,104 @@
 package com.sudokusolver.logic;
 
+import com.sudokusolver.model.SudokuLayout;
 import com.sudokusolver.model.SudokuPuzzle;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SudokuLoader {
+    // One row per line, the length of the first line gives the board size. Values above 9 are written A, B, ...
     public static int[][] load(String filename) throws FileNotFoundException {
         File myObj = new File(filename);
-        Scanner reader = new Scanner(myObj);
-        int[][] board = new int[9][9];
-        for(int i = 0; i < 9; i++){
-            String line = reader.nextLine().trim();
-            for(int j = 0; j < 9; j++){
-                char digit = line.charAt(j);
-                board[i][j]= Character.getNumericValue(digit);
+        try (Scanner reader = new Scanner(myObj)) {
+            String first = reader.nextLine().trim();
+            int size = SudokuLayout.of(first.length()).size;
+            int[][] board = new int[size][size];
+            for(int i = 0; i < size; i++){
+                String line = i == 0 ? first : reader.nextLine().trim();
+                for(int j = 0; j < size; j++){
+                    board[i][j] = SudokuLayout.valueOf(line.charAt(j));
+                }
             }
+            return board;
+        }
+    }
+    // Parses one "id puzzle difficulty" line, a missing difficulty is left empty
+    public static SudokuPuzzle parse(String line) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length < 2) throw new IllegalArgumentException("Expected \"id puzzle difficulty\": " + line);
+        String cells = fields[1];
+        int size = SudokuLayout.forCellCount(cells.length()).size;
+        int[][] board = new int[size][size];
+        for (int cell = 0; cell < cells.length(); ++cell) {
+            int value = SudokuLayout.valueOf(cells.charAt(cell));
+            if (value < 0 || value > size) throw new IllegalArgumentException("Invalid cell '" + cells.charAt(cell) + "': " + line);
+            board[cell / size][cell % size] = value;
         }
-        return board;
+        return new SudokuPuzzle(fields[0], board, fields.length > 2 ? fields[2] : "");
     }
+
     public static List<SudokuPuzzle> loadAllFromFile(String filename) throws FileNotFoundException {
-        List<SudokuPuzzle> puzzles = new ArrayList<>();
-        try (Scanner reader = new Scanner(new File(filename))) {
-            while (reader.hasNext()) {
-                String id = reader.next();
-                String puzzle = reader.next();
-                String difficulty = reader.next();
-                int[][] board = new int[9][9];
-
-                for (int row = 0; row < 9; ++row) {
-                    for (int col = 0; col < 9; ++col) {
-                        board[row][col] = Character.getNumericValue(puzzle.charAt(row * 9 + col));
-                    }
-                }
-                puzzles.add(new SudokuPuzzle(id, board, difficulty));
+        try (Stream<SudokuPuzzle> puzzles = stream(filename)) {
+            return puzzles.collect(Collectors.toList());
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filename);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lazily parses "id puzzle difficulty" lines from a memory-mapped file, only the current window is held in memory.
+    // The stream splits at line boundaries when run in parallel and must be closed to release the file.
+    public static Stream<SudokuPuzzle> stream(String filename) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        try {
+            return StreamSupport.stream(new PuzzleSpliterator(channel, 0, channel.size()), false)
+                    .onClose(() -> closeChannel(channel));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Splits the file into roughly equal line-aligned ranges, one independent stream per consumer
+    public static List<Stream<SudokuPuzzle>> streamChunks(String filename, int chunks) throws IOException {
+        Path path = Path.of(filename);
+        long[] bounds = new long[chunks + 1];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; ++i) {
+                bounds[i] = Math.max(bounds[i - 1], PuzzleSpliterator.nextLineStart(channel, size * i / chunks));
             }
         }
-        return puzzles;
+
+        List<Stream<SudokuPuzzle>> streams = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; ++i) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            streams.add(StreamSupport.stream(new PuzzleSpliterator(channel, bounds[i], bounds[i + 1]), false)
+                    .onClose(() -> closeChannel(channel)));
+        }
+        return streams;
+    }
+
+    private static void closeChannel(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
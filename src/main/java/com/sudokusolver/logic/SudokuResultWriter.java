@@ -0,0 +1,258 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuMetrics;
+import com.sudokusolver.model.SudokuResult;
+import com.sudokusolver.model.SudokuTechnique;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+// Buffered sink for solve results, encoded straight into one direct buffer that goes to the channel when full.
+//
+// TEXT writes one line per result: "id status grid nanos techniques", where techniques lists
+// NAME=placements/eliminations for every technique that changed something, or "-" without metrics.
+//
+// BINARY starts with MAGIC and VERSION (ints), then per result: id (u16 byte length + UTF-8), status ordinal (u8),
+// size (u8), the grid row by row two cells per byte with the even cell in the high nibble (one byte per cell
+// above 15x15), nanos (varlong), technique count (u8) and per technique its ordinal (u8), placements and
+// eliminations (varlongs). Not thread safe.
+public class SudokuResultWriter implements AutoCloseable {
+    public enum Format { TEXT, BINARY }
+
+    public static final int MAGIC = 0x53444B52; // "SDKR"
+    public static final int VERSION = 1;
+    private static final byte[][] STATUS_NAMES = names(SudokuResult.Status.values());
+    private static final byte[][] TECHNIQUE_NAMES = names(SudokuTechnique.values());
+
+    private final WritableByteChannel channel;
+    private final boolean ownsChannel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private final byte[] digits = new byte[20];
+    private long count;
+
+    // The channel stays open after close()
+    public SudokuResultWriter(WritableByteChannel channel, Format format) {
+        this(channel, false, format);
+    }
+
+    private SudokuResultWriter(WritableByteChannel channel, boolean ownsChannel, Format format) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.format = format;
+        if (format == Format.BINARY) buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    // Creates or truncates the file
+    public static SudokuResultWriter open(Path file, Format format) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new SudokuResultWriter(channel, true, format);
+    }
+
+    public void write(SudokuResult result) throws IOException {
+        if (format == Format.TEXT) writeText(result);
+        else writeBinary(result);
+        count++;
+    }
+
+    // Writes every result of the stream in encounter order, returns how many were written
+    public long writeAll(Stream<SudokuResult> results) throws IOException {
+        long start = count;
+        try {
+            results.forEachOrdered(result -> {
+                try {
+                    write(result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count - start;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void writeText(SudokuResult result) throws IOException {
+        putString(result.puzzle.id);
+        put((byte) ' ');
+        put(STATUS_NAMES[result.status.ordinal()]);
+        put((byte) ' ');
+        for (int[] row : result.board) {
+            for (int value : row) put((byte) (value >= 0 && value <= 25 ? SudokuLayout.symbol(value) : '?'));
+        }
+        put((byte) ' ');
+        putDecimal(result.nanos);
+        put((byte) ' ');
+        SudokuMetrics metrics = result.metrics;
+        boolean any = false;
+        if (metrics != null) {
+            for (SudokuTechnique technique : SudokuTechnique.values()) {
+                long placed = metrics.getPlacements(technique);
+                long eliminated = metrics.getEliminations(technique);
+                if (placed == 0 && eliminated == 0) continue;
+                if (any) put((byte) ',');
+                put(TECHNIQUE_NAMES[technique.ordinal()]);
+                put((byte) '=');
+                putDecimal(placed);
+                put((byte) '/');
+                putDecimal(eliminated);
+                any = true;
+            }
+        }
+        if (!any) put((byte) '-');
+        put((byte) '\n');
+    }
+
+    private void writeBinary(SudokuResult result) throws IOException {
+        String id = result.puzzle.id;
+        int idLength = utf8Length(id);
+        if (idLength > 0xFFFF) throw new IllegalArgumentException("Puzzle id longer than 65535 bytes");
+        put((byte) (idLength >>> 8));
+        put((byte) idLength);
+        putString(id);
+        put((byte) result.status.ordinal());
+
+        // A malformed grid is written as size x size, missing cells as 0
+        int[][] board = result.board;
+        int size = board.length;
+        put((byte) size);
+        boolean nibbles = size <= 15;
+        int pending = -1;
+        for (int[] row : board) {
+            for (int col = 0; col < size; ++col) {
+                int value = col < row.length ? row[col] : 0;
+                if (!nibbles) {
+                    put((byte) value);
+                } else if (pending < 0) {
+                    pending = value;
+                } else {
+                    put((byte) (pending << 4 | value));
+                    pending = -1;
+                }
+            }
+        }
+        if (pending >= 0) put((byte) (pending << 4));
+
+        putVarLong(result.nanos);
+        SudokuMetrics metrics = result.metrics;
+        int techniques = 0;
+        if (metrics != null) {
+            for (SudokuTechnique technique : SudokuTechnique.values()) {
+                if (metrics.getPlacements(technique) != 0 || metrics.getEliminations(technique) != 0) techniques++;
+            }
+        }
+        put((byte) techniques);
+        if (techniques == 0) return;
+        for (SudokuTechnique technique : SudokuTechnique.values()) {
+            long placed = metrics.getPlacements(technique);
+            long eliminated = metrics.getEliminations(technique);
+            if (placed == 0 && eliminated == 0) continue;
+            put((byte) technique.ordinal());
+            putVarLong(placed);
+            putVarLong(eliminated);
+        }
+    }
+
+    private void put(byte value) throws IOException {
+        if (!buffer.hasRemaining()) drain();
+        buffer.put(value);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        for (byte value : bytes) put(value);
+    }
+
+    // UTF-8 without going through a temporary byte array
+    private void putString(String value) throws IOException {
+        for (int i = 0; i < value.length(); ) {
+            int c = value.codePointAt(i);
+            i += Character.charCount(c);
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | c >> 6));
+                put((byte) (0x80 | c & 0x3F));
+            } else if (c < 0x10000) {
+                put((byte) (0xE0 | c >> 12));
+                put((byte) (0x80 | c >> 6 & 0x3F));
+                put((byte) (0x80 | c & 0x3F));
+            } else {
+                put((byte) (0xF0 | c >> 18));
+                put((byte) (0x80 | c >> 12 & 0x3F));
+                put((byte) (0x80 | c >> 6 & 0x3F));
+                put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); ) {
+            int c = value.codePointAt(i);
+            i += Character.charCount(c);
+            length += c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+        }
+        return length;
+    }
+
+    private void putDecimal(long value) throws IOException {
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) put(digits[--length]);
+    }
+
+    // Seven bits per byte, low bits first, the high bit marks that more bytes follow
+    private void putVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        put((byte) value);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            if (ownsChannel) channel.close();
+        }
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,400 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+// Persistent 9x9 solution cache, an open-addressing hash table in a memory-mapped file keyed by the packed givens.
+// Lookups are lock-free and may run on any number of threads or processes. One process at a time opens the store
+// for writing, guarded by a file lock, and its puts are serialized. Entries are written before their tag is
+// published, so a reader never sees a half-written slot. Removed entries become tombstones and are only reclaimed
+// when the table is rewritten, by growth or compact(). A rewrite goes to a new file that atomically replaces the old
+// one, the old file is marked retired so readers in other processes reopen on their next miss.
+// Layout: header | slots of 104 bytes: tag | status | nanos | packed puzzle | packed solution.
+public class SudokuSolutionStore implements AutoCloseable {
+    private static final int MAGIC = 0x53444B53; // "SDKS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int USED_OFFSET = 16;
+    private static final int RETIRED_OFFSET = 20;
+
+    private static final int SLOT_SIZE = 104;
+    private static final int STATUS_OFFSET = 4;
+    private static final int NANOS_OFFSET = 8;
+    private static final int PUZZLE_OFFSET = 16;
+    private static final int SOLUTION_OFFSET = PUZZLE_OFFSET + SudokuArchive.GRID_SIZE;
+
+    // Tag 0 is an empty slot, 1 a removed one, live tags are the key hash with bit 1 set so they never clash.
+    // The home slot comes from the bits above it.
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = 1;
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 24; // keeps the whole table inside one mapping
+    private static final int MAX_OPEN_ATTEMPTS = 10;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final boolean writable;
+    private volatile Table table;
+    private FileLock lock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // One mapped file, replaced as a whole when the store is rewritten
+    private static final class Table {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int capacity;
+
+        Table(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        int slot(int index) {
+            return HEADER_SIZE + index * SLOT_SIZE;
+        }
+
+        int tag(int index) {
+            return (int) INT.getAcquire(buffer, slot(index));
+        }
+
+        boolean matches(int index, byte[] key) {
+            int offset = slot(index) + PUZZLE_OFFSET;
+            for (int i = 0; i < key.length; ++i) {
+                if (buffer.get(offset + i) != key[i]) return false;
+            }
+            return true;
+        }
+
+        // Slot holding the key, or -(empty slot) - 1 where it would go
+        int find(byte[] key, int tag) {
+            int mask = capacity - 1;
+            for (int index = (tag >>> 2) & mask; ; index = (index + 1) & mask) {
+                int current = tag(index);
+                if (current == EMPTY) return -index - 1;
+                if (current == tag && matches(index, key)) return index;
+            }
+        }
+
+        int header(int offset) {
+            return (int) INT.getAcquire(buffer, offset);
+        }
+
+        void setHeader(int offset, int value) {
+            INT.setRelease(buffer, offset, value);
+        }
+    }
+
+    private SudokuSolutionStore(Path path, boolean writable, Table table, FileLock lock) {
+        this.path = path;
+        this.writable = writable;
+        this.table = table;
+        this.lock = lock;
+    }
+
+    // Opens or creates the store for reading and writing, fails if another writer holds it
+    public static SudokuSolutionStore open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            try {
+                Table empty = create(path, MIN_CAPACITY);
+                empty.buffer.force();
+                empty.channel.close();
+            } catch (FileAlreadyExistsException e) {
+                // Another process created it first
+            }
+        }
+        for (int attempt = 0; attempt < MAX_OPEN_ATTEMPTS; ++attempt) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                FileLock lock = tryLock(channel);
+                Table table = map(channel, FileChannel.MapMode.READ_WRITE);
+                if (table.header(RETIRED_OFFSET) == 0) return new SudokuSolutionStore(path, true, table, lock);
+                // The previous writer replaced the file between our open and our lock, go after the live one
+                lock.release();
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        throw new IOException("Solution store " + path + " is still a retired file after " + MAX_OPEN_ATTEMPTS + " attempts");
+    }
+
+    public static SudokuSolutionStore openReadOnly(Path path) throws IOException {
+        return new SudokuSolutionStore(path, false, mapReadOnly(path), null);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) throw new IOException("Solution store is already open for writing");
+        return lock;
+    }
+
+    private static Table mapReadOnly(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return map(channel, FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Table map(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) throw new IOException("Not a solution store");
+        MappedByteBuffer buffer = channel.map(mode, 0, size);
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a solution store");
+        if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported solution store version " + buffer.getInt(4));
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        if (Integer.bitCount(capacity) != 1 || size < HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+            throw new IOException("Corrupt solution store header");
+        }
+        return new Table(channel, buffer, capacity);
+    }
+
+    private static Table create(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(CAPACITY_OFFSET, capacity);
+            return new Table(channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Cached result for the puzzle, or null when it is not stored. Only 9x9 puzzles are ever stored.
+    // The result's nanos is the stored solve time of the original run, not the time the lookup took.
+    public SudokuResult lookup(SudokuPuzzle puzzle) {
+        byte[] key = key(puzzle.board);
+        if (key == null) return null;
+        int tag = tag(key);
+
+        Table current = table;
+        int index = current.find(key, tag);
+        if (index < 0 && !writable && current.header(RETIRED_OFFSET) != 0) {
+            current = reopen(current);
+            index = current.find(key, tag);
+        }
+        if (index < 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+
+        int slot = current.slot(index);
+        SudokuResult.Status status = SudokuResult.Status.values()[current.buffer.get(slot + STATUS_OFFSET)];
+        int[][] board = puzzle.board;
+        if (status == SudokuResult.Status.SOLVED) {
+            board = new int[9][9];
+            for (int i = 0; i < SudokuArchive.GRID_SIZE; ++i) {
+                int packed = current.buffer.get(slot + SOLUTION_OFFSET + i) & 0xFF;
+                int first = 2 * i;
+                board[first / 9][first % 9] = packed >>> 4;
+                if (first + 1 < 81) board[(first + 1) / 9][(first + 1) % 9] = packed & 0xF;
+            }
+        }
+        return new SudokuResult(puzzle, status, board, current.buffer.getLong(slot + NANOS_OFFSET), null);
+    }
+
+    // Stores a SOLVED or NO_SOLUTION result, anything else is not a stable answer and is skipped.
+    // Returns false when nothing was written, including when the puzzle is already stored.
+    public synchronized boolean put(SudokuResult result) {
+        if (!writable) throw new IllegalStateException("Solution store is read-only");
+        if (result.status != SudokuResult.Status.SOLVED && result.status != SudokuResult.Status.NO_SOLUTION) return false;
+        byte[] key = key(result.puzzle.board);
+        if (key == null) return false;
+        byte[] solution = new byte[SudokuArchive.GRID_SIZE];
+        if (result.status == SudokuResult.Status.SOLVED) SudokuArchive.pack(result.board, solution);
+        int tag = tag(key);
+
+        Table current = table;
+        int index = current.find(key, tag);
+        if (index >= 0) return false;
+        int used = current.header(USED_OFFSET);
+        if (2 * (used + 1) > current.capacity) {
+            current = rewrite(2 * current.capacity);
+            index = current.find(key, tag);
+        }
+
+        int slot = current.slot(-index - 1);
+        current.buffer.put(slot + STATUS_OFFSET, (byte) result.status.ordinal());
+        current.buffer.putLong(slot + NANOS_OFFSET, result.nanos);
+        current.buffer.put(slot + PUZZLE_OFFSET, key);
+        current.buffer.put(slot + SOLUTION_OFFSET, solution);
+        INT.setRelease(current.buffer, slot, tag);
+        current.setHeader(COUNT_OFFSET, current.header(COUNT_OFFSET) + 1);
+        current.setHeader(USED_OFFSET, current.header(USED_OFFSET) + 1);
+        return true;
+    }
+
+    // Marks the puzzle's entry removed, its slot is reclaimed by the next rewrite
+    public synchronized boolean remove(int[][] board) {
+        if (!writable) throw new IllegalStateException("Solution store is read-only");
+        byte[] key = key(board);
+        if (key == null) return false;
+        Table current = table;
+        int index = current.find(key, tag(key));
+        if (index < 0) return false;
+        INT.setRelease(current.buffer, current.slot(index), TOMBSTONE);
+        current.setHeader(COUNT_OFFSET, current.header(COUNT_OFFSET) - 1);
+        return true;
+    }
+
+    // Rewrites the table without tombstones at the smallest capacity that keeps it at most half full
+    public synchronized void compact() throws IOException {
+        if (!writable) throw new IllegalStateException("Solution store is read-only");
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * table.header(COUNT_OFFSET)) capacity *= 2;
+        rewriteOrThrow(capacity);
+    }
+
+    private Table rewrite(int capacity) {
+        try {
+            return rewriteOrThrow(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Copies the live entries into a new file and swaps it in. Readers on this store keep using the old mapping
+    // until they pick up the new table, the old mapping stays valid after its file is replaced.
+    private Table rewriteOrThrow(int capacity) throws IOException {
+        if (capacity > MAX_CAPACITY) throw new IllegalStateException("Solution store is full");
+        Table old = table;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        Table next = create(temp, capacity);
+        try {
+            int count = 0;
+            byte[] entry = new byte[SLOT_SIZE];
+            byte[] key = new byte[SudokuArchive.GRID_SIZE];
+            for (int index = 0; index < old.capacity; ++index) {
+                int tag = old.tag(index);
+                if (tag == EMPTY || tag == TOMBSTONE) continue;
+                old.buffer.get(old.slot(index), entry);
+                System.arraycopy(entry, PUZZLE_OFFSET, key, 0, key.length);
+                next.buffer.put(next.slot(-next.find(key, tag) - 1), entry);
+                count++;
+            }
+            next.buffer.putInt(COUNT_OFFSET, count).putInt(USED_OFFSET, count);
+            next.buffer.force();
+            FileLock nextLock = tryLock(next.channel);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            FileLock oldLock = lock;
+            lock = nextLock;
+            table = next;
+
+            // The new file is live from here on. The retired flag goes up before the old lock is released, so a
+            // writer that was waiting on the old file sees it and moves on to the new one.
+            old.setHeader(RETIRED_OFFSET, 1);
+            old.buffer.force();
+            try {
+                oldLock.release();
+                old.channel.close();
+            } catch (IOException e) {
+                // Nothing reads the old file through this store any more
+            }
+            return next;
+        } catch (IOException | RuntimeException e) {
+            if (table != next) {
+                next.channel.close();
+                Files.deleteIfExists(temp);
+            }
+            throw e;
+        }
+    }
+
+    // Another process rewrote the store, map the file that replaced ours
+    private synchronized Table reopen(Table retired) {
+        if (table != retired) return table;
+        try {
+            Table next = mapReadOnly(path);
+            retired.channel.close();
+            table = next;
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Packed givens, null for grids the store does not hold
+    private static byte[] key(int[][] board) {
+        if (board.length != 9) return null;
+        for (int[] row : board) {
+            if (row == null || row.length != 9) return null;
+            for (int value : row) {
+                if (value < 0 || value > 9) return null;
+            }
+        }
+        byte[] key = new byte[SudokuArchive.GRID_SIZE];
+        SudokuArchive.pack(board, key);
+        return key;
+    }
+
+    // FNV-1a over the packed grid, finished with a murmur mix so the low bits pick the slot well
+    private static int tag(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash | 2;
+    }
+
+    public int size() {
+        return table.header(COUNT_OFFSET);
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized void flush() {
+        if (writable) table.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (lock != null) lock.release();
+        table.channel.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuBoard;
+import com.sudokusolver.model.SudokuBudget;
+import com.sudokusolver.model.SudokuMetrics;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+import com.sudokusolver.model.SudokuTechnique;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Runs the logical techniques first and hands a stalled board over to a search engine.
+// Not thread safe, the search engine keeps per-instance scratch state.
+public class SudokuSolver {
+    private final SearchEngine engine;
+    private int[] values = new int[81];
+    private int[] candidates = new int[81];
+    private EnumSet<SudokuTechnique> techniques; // null keeps each board's own selection
+
+    public SudokuSolver() {
+        this(new BacktrackingSearch());
+    }
+
+    public SudokuSolver(SearchEngine engine) {
+        this.engine = engine;
+    }
+
+    public SudokuBoard solve(int[][] grid) {
+        SudokuBoard board = new SudokuBoard(grid);
+        solve(board);
+        return board;
+    }
+
+    // Logical techniques enabled on every board this solver solves, the rest are switched off
+    public void setTechniques(Set<SudokuTechnique> techniques) {
+        this.techniques = techniques == null ? null : EnumSet.copyOf(techniques);
+    }
+
+    // Solves a puzzle into a result, metrics may be null. Malformed input, e.g. a grid with missing rows,
+    // is reported as an ERROR result instead of thrown
+    public SudokuResult solve(SudokuPuzzle puzzle, SudokuMetrics metrics) {
+        return solve(puzzle, metrics, null);
+    }
+
+    // Same with a budget (null for none). Running out of it gives TIMED_OUT with the grid and candidate masks
+    // the logical techniques had reached.
+    public SudokuResult solve(SudokuPuzzle puzzle, SudokuMetrics metrics, SudokuBudget budget) {
+        long start = System.nanoTime();
+        try {
+            SudokuBoard board = new SudokuBoard(puzzle.board);
+            board.setMetrics(metrics);
+            if (countSolutions(board, 1, budget) > 0) {
+                return new SudokuResult(puzzle, SudokuResult.Status.SOLVED, board.toGrid(), System.nanoTime() - start, metrics);
+            }
+            if (budget == null || !budget.isExceeded()) {
+                return new SudokuResult(puzzle, SudokuResult.Status.NO_SOLUTION, board.toGrid(), System.nanoTime() - start, metrics);
+            }
+            int[] remaining = new int[board.getLayout().cellCount];
+            board.exportState(new int[remaining.length], remaining);
+            return new SudokuResult(puzzle, SudokuResult.Status.TIMED_OUT, board.toGrid(), System.nanoTime() - start, metrics, remaining);
+        } catch (RuntimeException e) {
+            return new SudokuResult(puzzle, SudokuResult.Status.ERROR, puzzle.board, System.nanoTime() - start, metrics);
+        }
+    }
+
+    // Returns false only when the board has no solution
+    public boolean solve(SudokuBoard board) {
+        return countSolutions(board, 1) > 0;
+    }
+
+    // Number of solutions of the grid, counting stops at limit, so a limit of 2 checks for a unique solution
+    public int countSolutions(int[][] grid, int limit) {
+        return countSolutions(new SudokuBoard(grid), limit);
+    }
+
+    public boolean hasUniqueSolution(int[][] grid) {
+        return countSolutions(grid, 2) == 1;
+    }
+
+    public int countSolutions(SudokuBoard board, int limit) {
+        return countSolutions(board, limit, null);
+    }
+
+    // Runs the logical techniques, which never rule out a solution, then counts what is left with the search engine.
+    // A positive count leaves one of the solutions on the board. With a budget (null for none) the count stops
+    // early once budget.isExceeded().
+    public int countSolutions(SudokuBoard board, int limit, SudokuBudget budget) {
+        if (techniques != null) {
+            for (SudokuTechnique technique : SudokuTechnique.values()) {
+                if (technique != SudokuTechnique.SEARCH) board.setEnabled(technique, techniques.contains(technique));
+            }
+        }
+        board.setBudget(budget);
+        board.solve();
+        if (limit < 1 || board.hasConflicts() || budget != null && budget.isExceeded()) return 0;
+        if (board.isSolved()) return 1;
+
+        int cellCount = board.getLayout().cellCount;
+        if (values.length != cellCount) {
+            values = new int[cellCount];
+            candidates = new int[cellCount];
+        }
+        board.exportState(values, candidates);
+        long start = System.nanoTime();
+        int found = engine.count(values, candidates, limit, budget);
+        if (found > 0) board.applySolution(values);
+
+        SudokuMetrics metrics = board.getMetrics();
+        if (metrics != null) {
+            long placed = found > 0 ? cellCount - countGivens(candidates) : 0;
+            metrics.record(SudokuTechnique.SEARCH, 0, placed, System.nanoTime() - start);
+        }
+        return found;
+    }
+
+    // Cells that were already filled when the board was handed over, their candidate mask is empty
+    private static int countGivens(int[] candidates) {
+        int count = 0;
+        for (int mask : candidates) {
+            if (mask == 0) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuCandidates;
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Bulk solver for puzzles of one size: singles propagation runs over blocks of boards side by side, with the
+// Vector API when the JVM has jdk.incubator.vector (--add-modules jdk.incubator.vector) and scalar loops otherwise.
+// Boards that singles cannot finish go through the regular search, other sizes and malformed grids through
+// SudokuSolver. Not thread safe, use one instance per thread.
+public class SudokuVectorBatch {
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    private final SudokuLayout layout;
+    private final BatchPropagator propagator;
+    private final int blockSize;
+    private final int[] masks;
+    private final int[] block;
+    private final int[] values;
+    private final int[] candidates;
+    private final BacktrackingSearch search = new BacktrackingSearch();
+    private final SudokuSolver solver = new SudokuSolver();
+
+    public SudokuVectorBatch() {
+        this(9, DEFAULT_BLOCK_SIZE, isVectorAvailable());
+    }
+
+    // vectorized must be false when isVectorAvailable() is
+    public SudokuVectorBatch(int size, int blockSize, boolean vectorized) {
+        layout = SudokuLayout.of(size);
+        propagator = vectorized ? new VectorBatchPropagator(layout) : new ScalarBatchPropagator(layout);
+        int lanes = propagator.lanes();
+        this.blockSize = (blockSize + lanes - 1) / lanes * lanes;
+        masks = new int[layout.cellCount * this.blockSize];
+        block = new int[this.blockSize];
+        values = new int[layout.cellCount];
+        candidates = new int[layout.cellCount];
+    }
+
+    public static boolean isVectorAvailable() {
+        return BatchPropagator.isVectorAvailable();
+    }
+
+    public boolean isVectorized() {
+        return propagator instanceof VectorBatchPropagator;
+    }
+
+    // Results come back in input order
+    public List<SudokuResult> solveAll(List<SudokuPuzzle> puzzles) {
+        SudokuResult[] results = new SudokuResult[puzzles.size()];
+        int filled = 0;
+        for (int i = 0; i < results.length; ++i) {
+            SudokuPuzzle puzzle = puzzles.get(i);
+            if (!fits(puzzle.board)) {
+                results[i] = solver.solve(puzzle, null);
+                continue;
+            }
+            block[filled++] = i;
+            if (filled == blockSize) {
+                solveBlock(puzzles, filled, results);
+                filled = 0;
+            }
+        }
+        if (filled > 0) solveBlock(puzzles, filled, results);
+        return Arrays.asList(results);
+    }
+
+    private boolean fits(int[][] board) {
+        if (board.length != layout.size) return false;
+        for (int[] row : board) {
+            if (row.length != layout.size) return false;
+            for (int value : row) {
+                if (value < 0 || value > layout.size) return false;
+            }
+        }
+        return true;
+    }
+
+    private void solveBlock(List<SudokuPuzzle> puzzles, int count, SudokuResult[] results) {
+        long start = System.nanoTime();
+        int lanes = propagator.lanes();
+        int boards = (count + lanes - 1) / lanes * lanes;
+        int size = layout.size;
+        for (int board = 0; board < boards; ++board) {
+            // Padding lanes hold empty boards, which singles leave alone
+            int[][] grid = board < count ? puzzles.get(block[board]).board : null;
+            for (int cell = 0; cell < layout.cellCount; ++cell) {
+                int value = grid == null ? 0 : grid[cell / size][cell % size];
+                masks[cell * boards + board] = value == 0 ? layout.allCandidates : SudokuCandidates.bit(value);
+            }
+        }
+        propagator.propagate(masks, boards);
+        long share = (System.nanoTime() - start) / count;
+
+        for (int board = 0; board < count; ++board) {
+            long boardStart = System.nanoTime();
+            SudokuPuzzle puzzle = puzzles.get(block[board]);
+            boolean solved = true;
+            boolean contradiction = false;
+            for (int cell = 0; cell < layout.cellCount; ++cell) {
+                int mask = masks[cell * boards + board];
+                candidates[cell] = mask;
+                values[cell] = 0;
+                if (mask == 0) contradiction = true;
+                if ((mask & (mask - 1)) != 0) solved = false;
+            }
+            // Every single was removed from its peers, so a board of singles is a valid solution
+            SudokuResult.Status status;
+            if (contradiction) {
+                status = SudokuResult.Status.NO_SOLUTION;
+            } else if (solved) {
+                for (int cell = 0; cell < layout.cellCount; ++cell) values[cell] = SudokuCandidates.first(candidates[cell]);
+                status = SudokuResult.Status.SOLVED;
+            } else {
+                status = search.search(values, candidates) ? SudokuResult.Status.SOLVED : SudokuResult.Status.NO_SOLUTION;
+            }
+            int[][] grid = status == SudokuResult.Status.SOLVED ? toGrid(values) : puzzle.board;
+            results[block[board]] = new SudokuResult(puzzle, status, grid, share + System.nanoTime() - boardStart, null);
+        }
+    }
+
+    private int[][] toGrid(int[] cells) {
+        int size = layout.size;
+        int[][] grid = new int[size][size];
+        for (int index = 0; index < cells.length; ++index) {
+            grid[index / size][index % size] = cells[index];
+        }
+        return grid;
+    }
+}
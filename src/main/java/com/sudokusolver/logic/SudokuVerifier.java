@@ -0,0 +1,321 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// Checks candidate solutions against their puzzle's givens and every row, column and box, with one bitmask per unit
+// and no board built. Works on flat cell arrays (row * size + col) or straight on the text bytes, nothing is allocated
+// per grid. Not thread safe, keeps scratch masks per instance; verifyFile gives each worker its own.
+public class SudokuVerifier {
+    public static final int MAX_REPORTED = 1000; // failures listed in a Summary, the counts are always exact
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BAD_GIVEN = 1 << 31; // above every value bit, so it always survives & ~bit
+
+    private final int size;
+    private final int cellCount;
+    private final int allValues;
+    private final int[] boxOf;
+    private final int[] columnMasks;
+    private final int[] boxMasks;
+    // Value bit of each byte as a solution symbol and as a given, see valueBit and givenBit
+    private final int[] symbolBits = new int[256];
+    private final int[] givenSymbolBits = new int[256];
+
+    public SudokuVerifier(int size) {
+        SudokuLayout layout = SudokuLayout.of(size);
+        this.size = layout.size;
+        cellCount = layout.cellCount;
+        allValues = layout.allCandidates;
+        boxOf = new int[cellCount];
+        for (int index = 0; index < cellCount; ++index) {
+            boxOf[index] = layout.getBoxIndex(index / size, index % size);
+        }
+        columnMasks = new int[size];
+        boxMasks = new int[size];
+        Arrays.fill(givenSymbolBits, BAD_GIVEN);
+        for (int c = 0; c < 128; ++c) {
+            int value = SudokuLayout.valueOf(c);
+            if (value < 0) continue;
+            symbolBits[c] = valueBit(value);
+            givenSymbolBits[c] = givenBit(value);
+        }
+    }
+
+    // Result of a bulk check
+    public static final class Summary {
+        public final long valid;
+        public final long invalid;
+        public final long malformed; // lines without both a puzzle and a solution of the right length
+        public final List<Long> failures; // 1-based line numbers, or stream positions for verifyAll, at most MAX_REPORTED
+
+        Summary(long valid, long invalid, long malformed, List<Long> failures) {
+            this.valid = valid;
+            this.invalid = invalid;
+            this.malformed = malformed;
+            this.failures = failures;
+        }
+
+        @Override
+        public String toString() {
+            return "valid=" + valid + " invalid=" + invalid + " malformed=" + malformed
+                    + (failures.isEmpty() ? "" : " failures=" + failures);
+        }
+    }
+
+    // Every cell holds 1..size, agrees with the given when there is one, and every unit ends up with all size values.
+    // Each cell's value bit is ORed into its row, column and box without branching, a bad symbol contributes no bit
+    // and a given that differs leaves a bit in mismatch, so everything is decided by comparing masks at the end.
+    public boolean verify(int[] puzzle, int[] solution) {
+        if (puzzle.length != cellCount || solution.length != cellCount) return false;
+        Arrays.fill(columnMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        int mismatch = 0;
+        for (int row = 0, index = 0; row < size; ++row) {
+            int rowMask = 0;
+            for (int col = 0; col < size; ++col, ++index) {
+                int bit = valueBit(solution[index]);
+                mismatch |= givenBit(puzzle[index]) & ~bit;
+                rowMask |= bit;
+                columnMasks[col] |= bit;
+                boxMasks[boxOf[index]] |= bit;
+            }
+            if (rowMask != allValues) return false;
+        }
+        return mismatch == 0 && complete();
+    }
+
+    public boolean verify(int[][] puzzle, int[][] solution) {
+        if (puzzle.length != size || solution.length != size) return false;
+        Arrays.fill(columnMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        int mismatch = 0;
+        for (int row = 0, index = 0; row < size; ++row) {
+            int[] givens = puzzle[row];
+            int[] values = solution[row];
+            if (givens.length != size || values.length != size) return false;
+            int rowMask = 0;
+            for (int col = 0; col < size; ++col, ++index) {
+                int bit = valueBit(values[col]);
+                mismatch |= givenBit(givens[col]) & ~bit;
+                rowMask |= bit;
+                columnMasks[col] |= bit;
+                boxMasks[boxOf[index]] |= bit;
+            }
+            if (rowMask != allValues) return false;
+        }
+        return mismatch == 0 && complete();
+    }
+
+    public boolean verify(SudokuResult result) {
+        return verify(result.puzzle.board, result.board);
+    }
+
+    // Grids written as size * size symbols (see SudokuLayout.symbol) at the given offsets, '.' or '0' for an empty given
+    public boolean verify(byte[] text, int puzzleOffset, int solutionOffset) {
+        Arrays.fill(columnMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        int mismatch = 0;
+        for (int row = 0, index = 0; row < size; ++row) {
+            int rowMask = 0;
+            for (int col = 0; col < size; ++col, ++index) {
+                int bit = symbolBits[text[solutionOffset + index] & 0xFF];
+                mismatch |= givenSymbolBits[text[puzzleOffset + index] & 0xFF] & ~bit;
+                rowMask |= bit;
+                columnMasks[col] |= bit;
+                boxMasks[boxOf[index]] |= bit;
+            }
+            if (rowMask != allValues) return false;
+        }
+        return mismatch == 0 && complete();
+    }
+
+    private boolean complete() {
+        for (int i = 0; i < size; ++i) {
+            if (columnMasks[i] != allValues || boxMasks[i] != allValues) return false;
+        }
+        return true;
+    }
+
+    // Bit of a solution value, 0 when it is out of range
+    private int valueBit(int value) {
+        return value >= 1 && value <= size ? 1 << (value - 1) : 0;
+    }
+
+    // Bit of a given, 0 for an empty cell and a bit no value has when it is out of range
+    private int givenBit(int value) {
+        return value == 0 ? 0 : value <= size && value > 0 ? 1 << (value - 1) : BAD_GIVEN;
+    }
+
+    // Checks each result's grid against its puzzle, failures are reported by position in the stream
+    public Summary verifyAll(Stream<SudokuResult> results) {
+        long[] counts = new long[2];
+        List<Long> failures = new ArrayList<>();
+        results.forEachOrdered(result -> {
+            if (verify(result)) {
+                counts[0]++;
+            } else {
+                if (failures.size() < MAX_REPORTED) failures.add(counts[0] + counts[1]);
+                counts[1]++;
+            }
+        });
+        return new Summary(counts[0], counts[1], 0, failures);
+    }
+
+    // Verifies a text file where each line holds a puzzle and its candidate solution as the first two tokens of
+    // size * size symbols, separated by whitespace or commas. Other tokens such as an id or a difficulty are ignored,
+    // so "id puzzle solution" lines and "puzzle,solution" CSV both work. Blank lines are skipped. The file is split
+    // into line-aligned ranges, one per thread, each read through a reused buffer.
+    public static Summary verifyFile(Path file, int size, int threads) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long[] bounds = new long[threads + 1];
+            bounds[threads] = fileSize;
+            for (int i = 1; i < threads; ++i) {
+                bounds[i] = Math.max(bounds[i - 1], PuzzleSpliterator.nextLineStart(channel, fileSize * i / threads));
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<FileRange>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; ++i) {
+                    FileRange range = new FileRange(new SudokuVerifier(size), channel, bounds[i], bounds[i + 1]);
+                    futures.add(pool.submit(range::verify));
+                }
+
+                // Ranges count their lines from 1, shift them by the lines in the ranges before
+                long valid = 0;
+                long invalid = 0;
+                long malformed = 0;
+                long linesBefore = 0;
+                List<Long> failures = new ArrayList<>();
+                for (Future<FileRange> future : futures) {
+                    FileRange range = future.get();
+                    valid += range.valid;
+                    invalid += range.invalid;
+                    malformed += range.malformed;
+                    for (long line : range.failures) {
+                        if (failures.size() < MAX_REPORTED) failures.add(linesBefore + line);
+                    }
+                    linesBefore += range.lines;
+                }
+                return new Summary(valid, invalid, malformed, failures);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while verifying " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                throw new IllegalStateException("Verifier worker failed", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // One worker's share of the file, [from, to) starts at a line start
+    private static final class FileRange {
+        private final SudokuVerifier verifier;
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private long lines;
+        private long valid;
+        private long invalid;
+        private long malformed;
+        private final List<Long> failures = new ArrayList<>();
+
+        FileRange(SudokuVerifier verifier, FileChannel channel, long from, long to) {
+            this.verifier = verifier;
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        FileRange verify() throws IOException {
+            byte[] bytes = new byte[(int) Math.min(BUFFER_SIZE, Math.max(1, to - from))];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            boolean skipping = false; // inside a line too long for the buffer, already counted as malformed
+            long position = from;
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) break;
+                }
+                int filled = buffer.position();
+                if (filled == 0) break;
+                boolean last = position + filled >= to;
+
+                int start = 0;
+                for (int i = 0; i < filled; ++i) {
+                    if (bytes[i] != '\n') continue;
+                    if (skipping) skipping = false;
+                    else line(bytes, start, i);
+                    start = i + 1;
+                }
+                if (last) {
+                    if (start < filled && !skipping) line(bytes, start, filled);
+                    start = filled;
+                } else if (start == 0) {
+                    if (!skipping) {
+                        lines++;
+                        fail();
+                        malformed++;
+                    }
+                    skipping = true;
+                    start = filled;
+                }
+                position += start;
+            }
+            return this;
+        }
+
+        private void line(byte[] bytes, int start, int end) {
+            int cellCount = verifier.cellCount;
+            int puzzle = -1;
+            int solution = -1;
+            boolean blank = true;
+            for (int i = start; i < end && solution < 0; ) {
+                while (i < end && isSeparator(bytes[i])) i++;
+                int tokenStart = i;
+                while (i < end && !isSeparator(bytes[i])) i++;
+                if (i == tokenStart) continue;
+                blank = false;
+                if (i - tokenStart != cellCount) continue;
+                if (puzzle < 0) puzzle = tokenStart;
+                else solution = tokenStart;
+            }
+            lines++;
+            if (blank) return;
+            if (solution < 0) {
+                fail();
+                malformed++;
+            } else if (verifier.verify(bytes, puzzle, solution)) {
+                valid++;
+            } else {
+                fail();
+                invalid++;
+            }
+        }
+
+        private void fail() {
+            if (failures.size() < MAX_REPORTED) failures.add(lines);
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == ',' || b == '\t' || b == '\r';
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuLayout;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Same passes as ScalarBatchPropagator with one board per vector lane. Only loaded after
+// BatchPropagator.isVectorAvailable(), so the incubator module stays optional at runtime.
+final class VectorBatchPropagator extends BatchPropagator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+    VectorBatchPropagator(SudokuLayout layout) {
+        super(layout);
+    }
+
+    @Override
+    int lanes() {
+        return SPECIES.length();
+    }
+
+    // Lane groups never interact, so each one runs to its own fixpoint
+    @Override
+    void propagate(int[] masks, int boards) {
+        for (int base = 0; base < boards; base += SPECIES.length()) {
+            while (nakedSingles(masks, boards, base) | hiddenSingles(masks, boards, base)) ;
+        }
+    }
+
+    private boolean nakedSingles(int[] masks, int boards, int base) {
+        boolean changed = false;
+        for (int cell = 0; cell < peers.length; ++cell) {
+            IntVector mask = IntVector.fromArray(SPECIES, masks, cell * boards + base);
+            VectorMask<Integer> single = mask.and(mask.sub(1)).eq(0).andNot(mask.eq(0));
+            if (!single.anyTrue()) continue;
+            IntVector remove = ZERO.blend(mask, single);
+            for (int peer : peers[cell]) {
+                int offset = peer * boards + base;
+                IntVector current = IntVector.fromArray(SPECIES, masks, offset);
+                if (current.and(remove).eq(0).allTrue()) continue;
+                current.lanewise(VectorOperators.AND_NOT, remove).intoArray(masks, offset);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean hiddenSingles(int[] masks, int boards, int base) {
+        boolean changed = false;
+        for (int[] unit : units) {
+            IntVector once = ZERO;
+            IntVector twice = ZERO;
+            for (int cell : unit) {
+                IntVector mask = IntVector.fromArray(SPECIES, masks, cell * boards + base);
+                twice = twice.or(once.and(mask));
+                once = once.or(mask);
+            }
+            IntVector hidden = once.lanewise(VectorOperators.AND_NOT, twice);
+            if (hidden.eq(0).allTrue()) continue;
+            for (int cell : unit) {
+                int offset = cell * boards + base;
+                IntVector mask = IntVector.fromArray(SPECIES, masks, offset);
+                IntVector hit = mask.and(hidden);
+                VectorMask<Integer> narrowed = hit.compare(VectorOperators.NE, 0).and(hit.compare(VectorOperators.NE, mask));
+                if (!narrowed.anyTrue()) continue;
+                mask.blend(hit, narrowed).intoArray(masks, offset);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
@@ -1,105 +1,282 @@
 package com.sudokusolver.model;
 
-import java.util.*;
+import jdk.jfr.FlightRecorder;
 
-public class SudokuBoard {
-    private SudokuCell[][] board = new SudokuCell[9][9];
-    private Set<Integer>[] rows = new HashSet[9];
-    private Set<Integer>[] columns = new HashSet[9];
-    private Set<Integer>[] boxes = new HashSet[9];
-    private Map<Integer, Integer>[] boxCandidateCount = new Map[9];
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
+public class SudokuBoard {
+    // Index tables for the board size, see SudokuLayout for the cell and unit numbering
+    private final SudokuLayout layout;
+    private final int size;
+    private final int cellCount;
+    private final int allCandidates;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final int[][] units;
+    private final int[][] peers;
+
+    private final int[] cells;
+    private final int[] candidates;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] boxes;
+    // unitCandidateCount[unit * size + n - 1] = occurrences of candidate n in the unit, kept up to date on every elimination
+    private final int[] unitCandidateCount;
+    // Same slots: XOR of the cells holding candidate n, which is the cell itself once the count is down to one.
+    // Built by the first hint() and only kept up to date from then on, like the hidden single worklist below.
+    private int[] unitCandidateCells;
+    private boolean boxCountsChanged;
+    // unitValueCount[unit * size + n - 1] = placed copies of n in the unit, so erasing one of two duplicates keeps the other
+    private final byte[] unitValueCount;
+    private int conflicts; // placed values beyond the first of their kind in a unit, e.g. from contradicting givens
+    // Scheduler state for solve(): unitVersion moves on every elimination in the unit, and
+    // seenVersion[technique * unitCount + unit] is the version the technique last examined
+    private final int[] unitVersion;
+    private final int[] seenVersion;
+    // Cells whose candidates dropped to one, waiting to be placed
+    private final int[] singles;
+    private final boolean[] queued;
+    private int singleCount;
+    // Unit slots whose candidate count dropped to one, i.e. possible hidden singles, checked lazily by hint()
+    private int[] hiddenSingles;
+    private boolean[] hiddenQueued;
+    private int hiddenSingleCount;
+    // Whole-board techniques rerun only when the elimination count moved since their last run
+    private final long[] seenEliminations;
+    // Scratch for the subset and fish scans: one mask per cell position, digit, row or column
+    private final int[] subsetMasks;
+    private int subsetUnit;
+    private int subsetDigit;
+    private final EnumSet<SudokuTechnique> techniques = EnumSet.copyOf(DEFAULT_TECHNIQUES);
+    // Running totals read by the metrics, cheap enough to keep unconditionally
+    private long eliminations;
+    private long placements;
+    // Eliminations caused by placements alone, anything beyond that was deduced by a technique
+    private long placementEliminations;
+    // Edit journal for undo/redo, one packed (cell, old value, new value) entry per edit, allocated on the first edit.
+    // Entries past journalPosition are the redo tail until the next edit drops them.
+    private int[] journal;
+    private int journalSize;
+    private int journalPosition;
+    private SudokuMetrics metrics;
+    private SudokuBudget budget;
+
+    // The grid is size x size for a supported size (4, 9, 16 or 25), 0 marks an empty cell
     public SudokuBoard(int[][] grid) {
-        // initialize sets
-        for (int i = 0; i < 9; i++) {
-            rows[i] = new HashSet<>();
-            columns[i] = new HashSet<>();
-            boxes[i] = new HashSet<>();
-            boxCandidateCount[i] = new HashMap<>();
-        }
-
-        //Initialize cells for each grid part
-        for (int i = 0; i < 9; ++i) {
-            for (int j = 0; j < 9; ++j) {
-                board[i][j] = new SudokuCell(grid[i][j]);
-                if (grid[i][j] != 0) {
-                    columns[j].add(grid[i][j]);
-                    rows[i].add(grid[i][j]);
-                    boxes[getBoxIndex(i, j)].add(grid[i][j]);
-                }
+        layout = SudokuLayout.of(grid.length);
+        size = layout.size;
+        cellCount = layout.cellCount;
+        allCandidates = layout.allCandidates;
+        rowOf = layout.rowOf;
+        colOf = layout.colOf;
+        boxOf = layout.boxOf;
+        units = layout.units;
+        peers = layout.peers;
+
+        cells = new int[cellCount];
+        candidates = new int[cellCount];
+        rows = new int[size];
+        columns = new int[size];
+        boxes = new int[size];
+        unitCandidateCount = new int[layout.unitCount * size];
+        unitValueCount = new byte[layout.unitCount * size];
+        unitVersion = new int[layout.unitCount];
+        seenVersion = new int[SudokuTechnique.values().length * layout.unitCount];
+        singles = new int[cellCount];
+        queued = new boolean[cellCount];
+        seenEliminations = new long[SudokuTechnique.values().length];
+        subsetMasks = new int[size];
+
+        Arrays.fill(candidates, allCandidates);
+        Arrays.fill(unitCandidateCount, size);
+        Arrays.fill(seenVersion, -1);
+        Arrays.fill(seenEliminations, -1);
+        for (int i = 0; i < size; ++i) {
+            if (grid[i].length != size) throw new IllegalArgumentException("Row " + i + " has " + grid[i].length + " cells, expected " + size);
+            for (int j = 0; j < size; ++j) {
+                int value = grid[i][j];
+                if (value < 0 || value > size) throw new IllegalArgumentException("Value " + value + " out of range at " + i + "," + j);
+                if (value != 0) place(i * size + j, value);
             }
         }
     }
 
+    // Sets the value and removes it from the candidates of its peers
+    private void place(int index, int value) {
+        int bit = SudokuCandidates.bit(value);
+        long before = eliminations;
+        eliminate(index, allCandidates);
+        cells[index] = value;
+        placements++;
+        rows[rowOf[index]] |= bit;
+        columns[colOf[index]] |= bit;
+        boxes[boxOf[index]] |= bit;
+        int n = value - 1;
+        if (unitValueCount[rowOf[index] * size + n]++ > 0) conflicts++;
+        if (unitValueCount[(size + colOf[index]) * size + n]++ > 0) conflicts++;
+        if (unitValueCount[(2 * size + boxOf[index]) * size + n]++ > 0) conflicts++;
+        for (int peer : peers[index]) {
+            eliminate(peer, bit);
+        }
+        placementEliminations += eliminations - before;
+    }
+
+    // Clears the cell and gives the value back to the cell and its peers wherever no other placement blocks it.
+    // That is the exact inverse of place() while the candidates only reflect placements. Once a technique has
+    // deduced eliminations they may rest on the erased value, so every candidate is rebuilt from the placements.
+    private void erase(int index) {
+        int value = cells[index];
+        int bit = SudokuCandidates.bit(value);
+        int n = value - 1;
+        cells[index] = 0;
+        if (--unitValueCount[rowOf[index] * size + n] > 0) conflicts--;
+        else rows[rowOf[index]] &= ~bit;
+        if (--unitValueCount[(size + colOf[index]) * size + n] > 0) conflicts--;
+        else columns[colOf[index]] &= ~bit;
+        if (--unitValueCount[(2 * size + boxOf[index]) * size + n] > 0) conflicts--;
+        else boxes[boxOf[index]] &= ~bit;
+
+        if (eliminations != placementEliminations) {
+            rebuildCandidates();
+            return;
+        }
+        restore(index, allCandidates & ~usedMask(index));
+        for (int peer : peers[index]) {
+            if (cells[peer] == 0 && (usedMask(peer) & bit) == 0) restore(peer, bit);
+        }
+        // Restored candidates invalidate what the whole-board techniques saw
+        Arrays.fill(seenEliminations, -1);
+    }
+
+    // Adds candidate bits back to an empty cell, the inverse of eliminate()
+    private void restore(int index, int bits) {
+        int added = bits & ~candidates[index];
+        if (added == 0) return;
+        candidates[index] |= added;
+        int row = rowOf[index];
+        int col = size + colOf[index];
+        int box = 2 * size + boxOf[index];
+        for (; added != 0; added &= added - 1) {
+            int n = Integer.numberOfTrailingZeros(added);
+            addCandidate(row * size + n, index);
+            addCandidate(col * size + n, index);
+            addCandidate(box * size + n, index);
+        }
+        unitVersion[row]++;
+        unitVersion[col]++;
+        unitVersion[box]++;
+        boxCountsChanged = true;
+        if (Integer.bitCount(candidates[index]) == 1 && !queued[index]) {
+            queued[index] = true;
+            singles[singleCount++] = index;
+        }
+    }
+
+    // Resets every candidate to what the placements allow, dropping all deduced eliminations
+    private void rebuildCandidates() {
+        Arrays.fill(unitCandidateCount, 0);
+        if (unitCandidateCells != null) Arrays.fill(unitCandidateCells, 0);
+        Arrays.fill(queued, false);
+        singleCount = 0;
+        for (int index = 0; index < cellCount; ++index) {
+            candidates[index] = 0;
+            if (cells[index] == 0) restore(index, allCandidates & ~usedMask(index));
+        }
+        for (int unit = 0; unit < unitVersion.length; ++unit) unitVersion[unit]++;
+        Arrays.fill(seenEliminations, -1);
+        placementEliminations = eliminations;
+    }
+
+    // Removes the given candidate bits from the cell, returns false when none of them were present
+    private boolean eliminate(int index, int bits) {
+        int removed = candidates[index] & bits;
+        if (removed == 0) return false;
+        candidates[index] ^= removed;
+        eliminations += Integer.bitCount(removed);
+        int row = rowOf[index];
+        int col = size + colOf[index];
+        int box = 2 * size + boxOf[index];
+        for (; removed != 0; removed &= removed - 1) {
+            int n = Integer.numberOfTrailingZeros(removed);
+            removeCandidate(row * size + n, index);
+            removeCandidate(col * size + n, index);
+            removeCandidate(box * size + n, index);
+        }
+        unitVersion[row]++;
+        unitVersion[col]++;
+        unitVersion[box]++;
+        boxCountsChanged = true;
+        if (cells[index] == 0 && Integer.bitCount(candidates[index]) == 1 && !queued[index]) {
+            queued[index] = true;
+            singles[singleCount++] = index;
+        }
+        return true;
+    }
+
+    private void addCandidate(int slot, int index) {
+        if (++unitCandidateCount[slot] == 1 && unitCandidateCells != null) queueHiddenSingle(slot);
+        if (unitCandidateCells != null) unitCandidateCells[slot] ^= index;
+    }
+
+    private void removeCandidate(int slot, int index) {
+        if (--unitCandidateCount[slot] == 1 && unitCandidateCells != null) queueHiddenSingle(slot);
+        if (unitCandidateCells != null) unitCandidateCells[slot] ^= index;
+    }
+
+    private void queueHiddenSingle(int slot) {
+        if (hiddenQueued[slot]) return;
+        hiddenQueued[slot] = true;
+        hiddenSingles[hiddenSingleCount++] = slot;
+    }
+
+    // True when the unit changed since the technique last examined it, and marks it as examined
+    private boolean isDirty(SudokuTechnique technique, int unit) {
+        int slot = technique.ordinal() * unitVersion.length + unit;
+        if (seenVersion[slot] == unitVersion[unit]) return false;
+        seenVersion[slot] = unitVersion[unit];
+        return true;
+    }
+
+    // Mask of values already placed in the row, column or box of the cell
+    private int usedMask(int index) {
+        return rows[rowOf[index]] | columns[colOf[index]] | boxes[boxOf[index]];
+    }
+
+    private boolean canPlace(int index, int value) {
+        return cells[index] == 0 && (usedMask(index) & SudokuCandidates.bit(value)) == 0;
+    }
+
+    // Placements already clear their peers, so this is only a cheap consistency pass against the unit masks
     public boolean removeInvalidCandidates() {
         boolean anyChange = false;
-        for (int row = 0; row < 9; ++row) {
-            for (int col = 0; col < 9; ++col) {
-                SudokuCell cell = board[row][col];
-                if (cell.getCell() == 0) {
-                    for (int n = 1; n <= 9; ++n) {
-                        if (cell.getCandidates().contains(n) && (columns[col].contains(n) || rows[row].contains(n) || boxes[getBoxIndex(row, col)].contains(n))) {
-                            anyChange = true;
-                            cell.removeCandidate(n);
-                        }
-                    }
-                }
-            }
+        for (int index = 0; index < cellCount; ++index) {
+            if (cells[index] == 0 && eliminate(index, usedMask(index))) anyChange = true;
         }
-        updateBoxCandidates();
         return anyChange;
     }
 
-    // Clears candidate count for each box, updating the occurrences of each candidate [1-9] in the box
+    // Box candidate counts are maintained on every elimination, reports whether they moved since the last call
     public boolean updateBoxCandidates() {
-        boolean hasChanged = false;
-        Map<Integer, Integer>[] boxCopy = new Map[9];
-        for (int i = 0; i < 9; ++i) {
-            boxCopy[i] = new HashMap<>(boxCandidateCount[i]);
-            boxCandidateCount[i].clear();
-        }
-
-        for (int row = 0; row < 9; ++row) {
-            for (int col = 0; col < 9; ++col) {
-                Set<Integer> cellCandidates = board[row][col].getCandidates();
-                for (int n = 1; n <= 9; ++n) {
-                    int boxIndex = getBoxIndex(row, col);
-                    if (cellCandidates.contains(n)) {
-                        boxCandidateCount[boxIndex].put(n, boxCandidateCount[boxIndex].getOrDefault(n, 0) + 1);
-                    }
-                }
-            }
-        }
-
-        for (int box = 0; box < 9; ++box) {
-            if (!boxCandidateCount[box].equals(boxCopy[box])) {
-                hasChanged = true;
-                break;
-            }
-        }
+        boolean hasChanged = boxCountsChanged;
+        boxCountsChanged = false;
         return hasChanged;
     }
 
-    private boolean processNakedPairsUnit(List<SudokuCell> unit) {
+    private boolean processNakedPairsUnit(int[] unit) {
         boolean hasChanged = false;
 
-        for (int i = 0; i < unit.size(); i++) {
-            Set<Integer> candidates1 = unit.get(i).getCandidates();
+        for (int i = 0; i < size; i++) {
+            int pair = candidates[unit[i]];
 
-            if (candidates1.size() == 2) {
-                for (int j = i + 1; j < unit.size(); j++) {
-                    Set<Integer> candidates2 = unit.get(j).getCandidates();
-
-                    if (candidates2.equals(candidates1)) {
+            if (Integer.bitCount(pair) == 2) {
+                for (int j = i + 1; j < size; j++) {
+                    if (candidates[unit[j]] == pair) {
                         // Remove these candidates from all other cells in the unit
-                        for (int k = 0; k < unit.size(); k++) {
-                            if (k != i && k != j) {
-                                for (int value : candidates1) {
-                                    if (unit.get(k).removeCandidate(value)) {
-                                        hasChanged = true;
-                                    }
-                                }
-                            }
+                        for (int k = 0; k < size; k++) {
+                            if (k != i && k != j && eliminate(unit[k], pair)) hasChanged = true;
                         }
                     }
                 }
@@ -113,320 +290,697 @@ public class SudokuBoard {
     public boolean nakedPairs() {
         boolean hasChanged = false;
 
-        // Process rows
-        for (int row = 0; row < 9; row++) {
-            List<SudokuCell> rowCells = new ArrayList<>();
-            for (int col = 0; col < 9; col++) {
-                rowCells.add(board[row][col]);
+        // Process rows, columns and boxes
+        for (int[] unit : units) {
+            if (processNakedPairsUnit(unit)) hasChanged = true;
+        }
+        return hasChanged;
+    }
+
+
+    public boolean fillHiddenRowColumnSingles() {
+        boolean hasChanged = false;
+
+        // Fill hidden row and column singles, the first 2 * size units
+        for (int unit = 0; unit < 2 * size; ++unit) {
+            if (fillHiddenSingles(unit)) hasChanged = true;
+        }
+        return hasChanged;
+    }
+
+    // Places every candidate that appears only once in the unit
+    private boolean fillHiddenSingles(int unit) {
+        boolean hasChanged = false;
+        for (int candidate = 1; candidate <= size; ++candidate) {
+            if (unitCandidateCount[unit * size + candidate - 1] == 1 && fillUnitSingle(units[unit], candidate)) {
+                hasChanged = true;
             }
-            if (processNakedPairsUnit(rowCells)) hasChanged = true;
         }
+        return hasChanged;
+    }
 
-        // Process columns
-        for (int col = 0; col < 9; col++) {
-            List<SudokuCell> colCells = new ArrayList<>();
-            for (int row = 0; row < 9; row++) {
-                colCells.add(board[row][col]);
+    // Places the candidate in the first cell of the unit that still allows it
+    private boolean fillUnitSingle(int[] unit, int candidate) {
+        int bit = SudokuCandidates.bit(candidate);
+        for (int index : unit) {
+            if ((candidates[index] & bit) != 0 && canPlace(index, candidate)) {
+                place(index, candidate);
+                return true;
             }
-            if (processNakedPairsUnit(colCells)) hasChanged = true;
         }
+        return false;
+    }
 
-        // Process 3x3 blocks
-        for (int blockRow = 0; blockRow < 3; blockRow++) {
-            for (int blockCol = 0; blockCol < 3; blockCol++) {
-                List<SudokuCell> blockCells = new ArrayList<>();
-                for (int r = blockRow * 3; r < blockRow * 3 + 3; r++) {
-                    for (int c = blockCol * 3; c < blockCol * 3 + 3; c++) {
-                        blockCells.add(board[r][c]);
-                    }
+    //fill cells that either have a single candidate, or a cell that has a candidate that only appears once in the box
+    public boolean fillSingleCandidate() {
+        boolean anyChange = false;
+        for (int index = 0; index < cellCount; index++) {
+            int mask = candidates[index];
+            if (cells[index] == 0 && Integer.bitCount(mask) == 1) {
+                int value = SudokuCandidates.first(mask);
+                if (canPlace(index, value)) {
+                    place(index, value);
+                    anyChange = true;
                 }
-                if (processNakedPairsUnit(blockCells)) hasChanged = true;
             }
         }
+        // Fill single candidates of boxes
+        for (int boxIndex = 0; boxIndex < size; ++boxIndex) {
+            if (fillHiddenSingles(2 * size + boxIndex)) anyChange = true;
+        }
+        return anyChange;
+    }
+
+    // Box cells pointing at a line are handled by boxLineReduction(), this is the other direction:
+    // a candidate confined to one box within a row or column is removed from the rest of that box
+    public boolean claiming() {
+        return forUnits(SudokuTechnique.CLAIMING, false);
+    }
 
-        removeInvalidCandidates();
+    private boolean claiming(int unit) {
+        boolean hasChanged = false;
+        int[] line = units[unit];
+        for (int n = 0; n < size; ++n) {
+            int count = unitCandidateCount[unit * size + n];
+            if (count < 2 || count > layout.boxSize) continue;
+            int bit = 1 << n;
+            int box = -1;
+            for (int index : line) {
+                if ((candidates[index] & bit) == 0) continue;
+                if (box < 0) {
+                    box = boxOf[index];
+                } else if (box != boxOf[index]) {
+                    box = -1;
+                    break;
+                }
+            }
+            if (box < 0) continue;
+            for (int index : units[2 * size + box]) {
+                boolean inLine = unit < size ? rowOf[index] == unit : colOf[index] == unit - size;
+                if (!inLine && eliminate(index, bit)) hasChanged = true;
+            }
+        }
         return hasChanged;
     }
 
+    public boolean nakedTriples() {
+        return forUnits(SudokuTechnique.NAKED_TRIPLES, false);
+    }
 
-    public boolean fillHiddenRowColumnSingles() {
-        Map<Integer, Integer>[] rowCandidates = new Map[9];
-        Map<Integer, Integer>[] colCandidates = new Map[9];
-        boolean hasChanged = false;
+    public boolean nakedQuads() {
+        return forUnits(SudokuTechnique.NAKED_QUADS, false);
+    }
+
+    public boolean hiddenPairs() {
+        return forUnits(SudokuTechnique.HIDDEN_PAIRS, false);
+    }
 
-        for (int i = 0; i < 9; i++) {
-            rowCandidates[i] = new HashMap<>();
-            colCandidates[i] = new HashMap<>();
+    public boolean hiddenTriples() {
+        return forUnits(SudokuTechnique.HIDDEN_TRIPLES, false);
+    }
+
+    // k cells of the unit whose candidates together are k digits, those digits leave the other cells
+    private boolean nakedSubsets(int unit, int k) {
+        int[] cellsOfUnit = units[unit];
+        for (int position = 0; position < size; ++position) {
+            int mask = candidates[cellsOfUnit[position]];
+            int count = Integer.bitCount(mask);
+            subsetMasks[position] = count >= 2 && count <= k ? mask : 0;
         }
+        subsetUnit = unit;
+        return findSubsets(Subset.NAKED, k, 0, 0, 0, 0);
+    }
 
-        //Update the candidates that each row and col contains
-        for (int row = 0; row < 9; ++row) {
-            for (int col = 0; col < 9; ++col) {
-                for (int candidate = 1; candidate <= 9; candidate++) {
-                    if (board[row][col].getCandidates().contains(candidate)) {
-                        rowCandidates[row].put(candidate, rowCandidates[row].getOrDefault(candidate, 0) + 1);
-                        colCandidates[col].put(candidate, colCandidates[col].getOrDefault(candidate, 0) + 1);
-                    }
-                }
+    // k digits that fit in only k cells of the unit, those cells drop every other candidate
+    private boolean hiddenSubsets(int unit, int k) {
+        int[] cellsOfUnit = units[unit];
+        Arrays.fill(subsetMasks, 0);
+        for (int position = 0; position < size; ++position) {
+            for (int mask = candidates[cellsOfUnit[position]]; mask != 0; mask &= mask - 1) {
+                subsetMasks[Integer.numberOfTrailingZeros(mask)] |= 1 << position;
             }
         }
+        for (int n = 0; n < size; ++n) {
+            int count = unitCandidateCount[unit * size + n];
+            if (count < 2 || count > k) subsetMasks[n] = 0;
+        }
+        subsetUnit = unit;
+        return findSubsets(Subset.HIDDEN, k, 0, 0, 0, 0);
+    }
 
-        // Fill hidden row single
-        for (int row = 0; row < 9; ++row) {
-            for (int candidate = 1; candidate <= 9; ++candidate) {
-                if (rowCandidates[row].getOrDefault(candidate, 0) == 1) {
-                    for (int col = 0; col < 9; ++col) {
-                        SudokuCell cell = board[row][col];
-                        if (cell.getCandidates().contains(candidate) && cell.getCell() == 0) {
-                            board[row][col].setCell(candidate);
-                            rows[row].add(candidate);
-                            columns[col].add(candidate);
-                            boxes[getBoxIndex(row, col)].add(candidate);
-                            hasChanged = true;
-                            break;
-                        }
+    public boolean xWing() {
+        return fish(2);
+    }
+
+    public boolean swordfish() {
+        return fish(3);
+    }
+
+    // k rows holding a digit in only k columns clear the digit from the rest of those columns, and the same with rows and columns swapped
+    private boolean fish(int k) {
+        boolean hasChanged = false;
+        for (int n = 0; n < size; ++n) {
+            int bit = 1 << n;
+            subsetDigit = bit;
+            for (int line = 0; line < size; ++line) {
+                subsetMasks[line] = linePositions(line, n, k);
+            }
+            if (findSubsets(Subset.ROW_FISH, k, 0, 0, 0, 0)) hasChanged = true;
+            for (int line = 0; line < size; ++line) {
+                subsetMasks[line] = linePositions(size + line, n, k);
+            }
+            if (findSubsets(Subset.COLUMN_FISH, k, 0, 0, 0, 0)) hasChanged = true;
+        }
+        return hasChanged;
+    }
+
+    // Positions of candidate n + 1 along the row or column unit, 0 unless there are between 2 and k of them
+    private int linePositions(int unit, int n, int k) {
+        int count = unitCandidateCount[unit * size + n];
+        if (count < 2 || count > k) return 0;
+        int bit = 1 << n;
+        int positions = 0;
+        for (int position = 0; position < size; ++position) {
+            if ((candidates[units[unit][position]] & bit) != 0) positions |= 1 << position;
+        }
+        return positions;
+    }
+
+    private enum Subset {NAKED, HIDDEN, ROW_FISH, COLUMN_FISH}
+
+    // Walks every choice of k non-empty subsetMasks whose union has exactly k bits, picked is the bitmask of chosen indexes
+    private boolean findSubsets(Subset kind, int k, int from, int depth, int picked, int union) {
+        if (depth == k) return Integer.bitCount(union) == k && applySubset(kind, picked, union);
+        boolean hasChanged = false;
+        for (int i = from; i <= size - (k - depth); ++i) {
+            int mask = subsetMasks[i];
+            if (mask == 0) continue;
+            int next = union | mask;
+            if (Integer.bitCount(next) > k) continue;
+            if (findSubsets(kind, k, i + 1, depth + 1, picked | 1 << i, next)) hasChanged = true;
+        }
+        return hasChanged;
+    }
+
+    private boolean applySubset(Subset kind, int picked, int union) {
+        boolean hasChanged = false;
+        switch (kind) {
+            case NAKED:
+                for (int position = 0; position < size; ++position) {
+                    if ((picked & 1 << position) == 0 && eliminate(units[subsetUnit][position], union)) hasChanged = true;
+                }
+                break;
+            case HIDDEN:
+                for (int positions = union; positions != 0; positions &= positions - 1) {
+                    int index = units[subsetUnit][Integer.numberOfTrailingZeros(positions)];
+                    if (eliminate(index, allCandidates & ~picked)) hasChanged = true;
+                }
+                break;
+            case ROW_FISH:
+            case COLUMN_FISH:
+                // picked holds the base lines, union the crossing lines they cover
+                for (int crossing = union; crossing != 0; crossing &= crossing - 1) {
+                    int[] line = units[(kind == Subset.ROW_FISH ? size : 0) + Integer.numberOfTrailingZeros(crossing)];
+                    for (int position = 0; position < size; ++position) {
+                        if ((picked & 1 << position) == 0 && eliminate(line[position], subsetDigit)) hasChanged = true;
                     }
                 }
-            }
+                break;
         }
+        return hasChanged;
+    }
 
-        for (int col = 0; col < 9; ++col) {
-            for (int candidate = 1; candidate <= 9; ++candidate) {
-                if (colCandidates[col].getOrDefault(candidate, 0) == 1) {
-                    for (int row = 0; row < 9; ++row) {
-                        if (board[row][col].getCandidates().contains(candidate)) {
-                            board[row][col].setCell(candidate);
-                            rows[row].add(candidate);
-                            columns[col].add(candidate);
-                            boxes[getBoxIndex(row, col)].add(candidate);
-                            hasChanged = true;
-                            break;
-                        }
+    // A bi-value pivot {x,y} seeing bi-value pincers {x,z} and {y,z}: z goes from every cell seeing both pincers
+    public boolean xyWing() {
+        boolean hasChanged = false;
+        for (int pivot = 0; pivot < cellCount; ++pivot) {
+            int pivotMask = candidates[pivot];
+            if (Integer.bitCount(pivotMask) != 2) continue;
+            for (int first : peers[pivot]) {
+                int firstMask = candidates[first];
+                if (Integer.bitCount(firstMask) != 2 || Integer.bitCount(firstMask & pivotMask) != 1) continue;
+                int z = firstMask & ~pivotMask;
+                int secondMask = (pivotMask & ~firstMask) | z;
+                for (int second : peers[pivot]) {
+                    if (candidates[second] != secondMask) continue;
+                    for (int index : peers[first]) {
+                        if (index != second && sees(index, second) && eliminate(index, z)) hasChanged = true;
                     }
                 }
             }
         }
-        if (hasChanged) removeInvalidCandidates();
         return hasChanged;
     }
 
-    //fill cells that either have a single candidate, or a cell that has a candidate that only appears once in the box
-    public boolean fillSingleCandidate() {
+    private boolean sees(int a, int b) {
+        return rowOf[a] == rowOf[b] || colOf[a] == colOf[b] || boxOf[a] == boxOf[b];
+    }
+
+    // Places the cells queued by eliminate() since the last call
+    private boolean fillQueuedSingles() {
         boolean anyChange = false;
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                SudokuCell cell = board[row][col];
-                if (cell.getCell() == 0 && cell.getCandidates().size() == 1) {
-                    int value = cell.getCandidates().iterator().next();
-                    cell.setCell(value);
-                    columns[col].add(value);
-                    rows[row].add(value);
-                    boxes[getBoxIndex(row, col)].add(value);
+        while (singleCount > 0) {
+            int index = singles[--singleCount];
+            queued[index] = false;
+            int mask = candidates[index];
+            if (cells[index] == 0 && Integer.bitCount(mask) == 1) {
+                int value = SudokuCandidates.first(mask);
+                if (canPlace(index, value)) {
+                    place(index, value);
                     anyChange = true;
                 }
             }
         }
-        // Fill single candidates of boxes
-        for (int boxIndex = 0; boxIndex < 9; ++boxIndex) {
-            for (int candidate = 1; candidate <= 9; ++candidate) {
-                if (boxCandidateCount[boxIndex].getOrDefault(candidate, 0) == 1) {
-                    int[] boxStartPos = getFirstCellPosition(boxIndex);
-                    int startX = boxStartPos[0];
-                    int startY = boxStartPos[1];
-                    for (int row = startX; row < startX + 3; ++row) {
-                        for (int col = startY; col < startY + 3; ++col) {
-                            SudokuCell cell = board[row][col];
-                            if (cell.getCell() == 0 & cell.getCandidates().contains(candidate)) {
-                                cell.setCell(candidate);
-                                columns[col].add(candidate);
-                                rows[row].add(candidate);
-                                boxes[getBoxIndex(row, col)].add(candidate);
-                                anyChange = true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        updateBoxCandidates();
         return anyChange;
     }
 
+    // True when some row, column or box holds the same value twice, such a board has no solution
+    public boolean hasConflicts() {
+        return conflicts > 0;
+    }
+
+    // Full and conflict-free, which with every unit holding size distinct values means valid
     public boolean isSolved() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (board[i][j].getCell() == 0) return false;
-            }
+        if (conflicts > 0) return false;
+        for (int index = 0; index < cellCount; index++) {
+            if (cells[index] == 0) return false;
         }
         return true;
     }
 
-    // return int[2] where int[0] = 1 or 2 (row or line), int[1] = row or column
-    int[] straightLineCandidatesInBox(int boxNumber, int number) {
-        int[] info = new int[2];
-
-        final int ROW = 1;
-        final int COLUMN = 2;
-
-        // Get the starting coordinates of the specified box
-        int[] boxStartCoordinates = getFirstCellPosition(boxNumber);
-        int startRow = boxStartCoordinates[0];
-        int startColumn = boxStartCoordinates[1];
-
-        int[] rowContains = new int[3];
-        int[] columnContains = new int[3];
-        int appeared = 0;
-        // Check how many times the specified candidate appears in each row and column
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                int row = startRow + i;
-                int col = startColumn + j;
-                if (board[row][col].getCandidates().contains(number)) {
-                    rowContains[i]++;
-                    columnContains[j]++;
-                    appeared++;
-                }
-            }
+    // The heavier scans (hidden triples, naked quads, fish, XY-Wing) cost more than the search they save on typical
+    // puzzles, so they are opt-in through setEnabled
+    private static final EnumSet<SudokuTechnique> DEFAULT_TECHNIQUES = EnumSet.of(
+            SudokuTechnique.SINGLE_CANDIDATE,
+            SudokuTechnique.HIDDEN_SINGLE,
+            SudokuTechnique.NAKED_PAIRS,
+            SudokuTechnique.BOX_LINE_REDUCTION,
+            SudokuTechnique.CLAIMING,
+            SudokuTechnique.HIDDEN_PAIRS,
+            SudokuTechnique.NAKED_TRIPLES);
+
+    // Techniques in escalation order, cheapest first
+    private static final SudokuTechnique[] SCHEDULE = {
+            SudokuTechnique.SINGLE_CANDIDATE,
+            SudokuTechnique.HIDDEN_SINGLE,
+            SudokuTechnique.NAKED_PAIRS,
+            SudokuTechnique.BOX_LINE_REDUCTION,
+            SudokuTechnique.CLAIMING,
+            SudokuTechnique.HIDDEN_PAIRS,
+            SudokuTechnique.NAKED_TRIPLES,
+            SudokuTechnique.HIDDEN_TRIPLES,
+            SudokuTechnique.X_WING,
+            SudokuTechnique.NAKED_QUADS,
+            SudokuTechnique.XY_WING,
+            SudokuTechnique.SWORDFISH
+    };
+
+    // Runs the cheapest technique that still makes progress and drops back to the cheapest one after every change.
+    // Each technique only revisits the units that changed since it last examined them.
+    public void solve() {
+        // Checked once per solve, a recording started later is picked up by the next one
+        boolean recording = FlightRecorder.isInitialized();
+        int level = 0;
+        while (level < SCHEDULE.length) {
+            if (level == 0 && metrics != null) metrics.recordPass();
+            if (budget != null && !budget.step()) break;
+            SudokuTechnique technique = SCHEDULE[level];
+            level = techniques.contains(technique) && apply(technique, recording) ? 0 : level + 1;
         }
+        if (metrics != null) metrics.recordSolve();
+    }
 
-        if (appeared > 3 || appeared < 2) {
-            return null;
-        }
-        //Count in how many rows and columns it appears
-        int appearedInRow = 0, appearInColumn = 0;
-        ;
-        for (int i = 0; i < 3; ++i) {
-            if (rowContains[i] > 0) appearedInRow++;
-            if (columnContains[i] > 0) appearInColumn++;
-        }
-
-        // If the candidate only appears once in a single row or column return true
-        if (appearInColumn == 1 || appearedInRow == 1) {
-            info[0] = (appearedInRow == 1) ? ROW : COLUMN;
-            if (info[0] == ROW) {
-                if (rowContains[0] > 0) info[1] = startRow;
-                if (rowContains[1] > 0) info[1] = startRow + 1;
-                if (rowContains[2] > 0) info[1] = startRow + 2;
-            } else {
-                if (columnContains[0] > 0) info[1] = startColumn;
-                if (columnContains[1] > 0) info[1] = startColumn + 1;
-                if (columnContains[2] > 0) info[1] = startColumn + 2;
-            }
-            return info;
+    // Runs one technique, timing and counting it only when metrics are set or a JFR recording is running
+    private boolean apply(SudokuTechnique technique, boolean recording) {
+        if (recording) return applyRecorded(technique);
+        if (metrics == null) return invoke(technique);
+
+        long startEliminations = eliminations;
+        long startPlacements = placements;
+        long start = System.nanoTime();
+        boolean changed = invoke(technique);
+        metrics.record(technique, eliminations - startEliminations, placements - startPlacements,
+                System.nanoTime() - start);
+        return changed;
+    }
+
+    // Kept apart from apply so the jdk.jfr event classes are only loaded once a recording exists
+    private boolean applyRecorded(SudokuTechnique technique) {
+        TechniqueEvent event = new TechniqueEvent();
+        if (metrics == null && !event.isEnabled()) return invoke(technique);
+
+        long startEliminations = eliminations;
+        long startPlacements = placements;
+        long start = System.nanoTime();
+        event.begin();
+        boolean changed = invoke(technique);
+        event.end();
+        long elapsed = System.nanoTime() - start;
+
+        if (metrics != null) {
+            metrics.record(technique, eliminations - startEliminations, placements - startPlacements, elapsed);
         }
-        return null;
+        if (event.shouldCommit()) {
+            event.technique = technique.name();
+            event.eliminations = eliminations - startEliminations;
+            event.placements = placements - startPlacements;
+            event.changed = changed;
+            event.commit();
+        }
+        return changed;
     }
 
-    public void solve() {
-        // Parse simple candidates
-        while (true) {
-            boolean a = removeInvalidCandidates();
-            boolean b = fillSingleCandidate();
-            if (!(a || b)) break;
+    private boolean invoke(SudokuTechnique technique) {
+        switch (technique) {
+            case SINGLE_CANDIDATE:
+                return fillQueuedSingles();
+            case X_WING:
+                return boardChanged(technique) && xWing();
+            case SWORDFISH:
+                return boardChanged(technique) && swordfish();
+            case XY_WING:
+                return boardChanged(technique) && xyWing();
+            case SEARCH:
+                throw new IllegalArgumentException(technique + " is not a logical technique");
+            default:
+                return forUnits(technique, true);
         }
+    }
+
+    // True when anything was eliminated since the technique last ran, and marks the board as seen
+    private boolean boardChanged(SudokuTechnique technique) {
+        int slot = technique.ordinal();
+        if (seenEliminations[slot] == eliminations) return false;
+        seenEliminations[slot] = eliminations;
+        return true;
+    }
 
-        boolean hasChanged = true;
-        while (hasChanged) {
-            hasChanged = false;
-            if (boxLineReduction()) hasChanged = true;
-            if (fillSingleCandidate()) hasChanged = true;
-            if (removeInvalidCandidates()) hasChanged = true;
-            if (updateBoxCandidates()) hasChanged = true;
-            boolean changed;
-            do {
-                changed = fillHiddenRowColumnSingles() | nakedPairs();
-                if (changed) hasChanged = true;
-            } while (changed);
+    // Runs a unit technique on the units it applies to, optionally only on those that changed since it last examined them
+    private boolean forUnits(SudokuTechnique technique, boolean dirtyOnly) {
+        int from = technique == SudokuTechnique.BOX_LINE_REDUCTION ? 2 * size : 0;
+        int to = technique == SudokuTechnique.CLAIMING ? 2 * size : layout.unitCount;
+        boolean hasChanged = false;
+        for (int unit = from; unit < to; ++unit) {
+            if ((!dirtyOnly || isDirty(technique, unit)) && applyToUnit(technique, unit)) hasChanged = true;
         }
+        return hasChanged;
+    }
+
+    private boolean applyToUnit(SudokuTechnique technique, int unit) {
+        switch (technique) {
+            case HIDDEN_SINGLE:
+                return fillHiddenSingles(unit);
+            case NAKED_PAIRS:
+                return processNakedPairsUnit(units[unit]);
+            case BOX_LINE_REDUCTION:
+                return boxLineReduction(unit - 2 * size);
+            case CLAIMING:
+                return claiming(unit);
+            case NAKED_TRIPLES:
+                return nakedSubsets(unit, 3);
+            case NAKED_QUADS:
+                return nakedSubsets(unit, 4);
+            case HIDDEN_PAIRS:
+                return hiddenSubsets(unit, 2);
+            case HIDDEN_TRIPLES:
+                return hiddenSubsets(unit, 3);
+            default:
+                throw new IllegalArgumentException(technique + " does not work on single units");
+        }
+    }
+
+    // Logical techniques solve() may use, see DEFAULT_TECHNIQUES for the initial set
+    public void setEnabled(SudokuTechnique technique, boolean enabled) {
+        if (technique == SudokuTechnique.SEARCH) throw new IllegalArgumentException(technique + " is not a logical technique");
+        if (enabled) techniques.add(technique);
+        else techniques.remove(technique);
+    }
+
+    public boolean isEnabled(SudokuTechnique technique) {
+        return techniques.contains(technique);
+    }
+
+    // Bounds solve(), which stops early once the budget is exceeded, null removes the bound
+    public void setBudget(SudokuBudget budget) {
+        this.budget = budget;
+    }
+
+    public SudokuBudget getBudget() {
+        return budget;
+    }
+
+    // Collect per-technique counters into metrics during solve(), null turns instrumentation off
+    public void setMetrics(SudokuMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SudokuMetrics getMetrics() {
+        return metrics;
     }
 
     public boolean boxLineReduction() {
         boolean hasChanged = false;
-        for (int boxIndex = 0; boxIndex < 9; ++boxIndex) {
-            // Iterate through the possible values [1-9]
-            for (int candidate = 1; candidate <= 9; candidate++) {
-                int[] result = straightLineCandidatesInBox(boxIndex, candidate);
-                if (result == null) continue;
-
-                int type = result[0];
-                int globalIndex = result[1];
-
-                // If box contains two values in a row (horizontally)
-                if (type == 1) {
-                    //Iterate through the board rows cells where two in a row was found with j value
-                    for (int col = 0; col < 9; ++col) {
-                        //If we are not standing in the same box as where j was found in the row, eliminate j value
-                        if (getBoxIndex(globalIndex, col) != boxIndex && board[globalIndex][col].getCandidates().contains(candidate)) {
-                            board[globalIndex][col].removeCandidate(candidate);
-                            hasChanged = true;
-                        }
-                    }
+        for (int boxIndex = 0; boxIndex < size; ++boxIndex) {
+            if (boxLineReduction(boxIndex)) hasChanged = true;
+        }
+        return hasChanged;
+    }
+
+    private boolean boxLineReduction(int boxIndex) {
+        boolean hasChanged = false;
+        int boxSize = layout.boxSize;
+        int[] box = units[2 * size + boxIndex];
+        int startRow = (boxIndex / boxSize) * boxSize;
+        int startColumn = (boxIndex % boxSize) * boxSize;
+        // Iterate through the possible values
+        for (int candidate = 1; candidate <= size; candidate++) {
+            int bit = SudokuCandidates.bit(candidate);
+            // Bit i of rowsHit / columnsHit is set when the candidate appears in that row / column of the box
+            int rowsHit = 0, columnsHit = 0, appeared = 0;
+            for (int k = 0; k < size; ++k) {
+                if ((candidates[box[k]] & bit) != 0) {
+                    rowsHit |= 1 << (k / boxSize);
+                    columnsHit |= 1 << (k % boxSize);
+                    appeared++;
                 }
-                // If box contains two values in a row (vertically)
-                if (type == 2) {
-                    // Iterate through the board column cells where two in a row was found
-                    for (int row = 0; row < 9; ++row) {
-                        // If the cell is not in the same box as where j was found, remove j from the candidate in the column
-                        if (getBoxIndex(row, globalIndex) != boxIndex && board[row][globalIndex].getCandidates().contains(candidate)) {
-                            board[row][globalIndex].removeCandidate(candidate);
-                            hasChanged = true;
-                        }
+            }
+            if (appeared > boxSize || appeared < 2) continue;
 
-                    }
+            // If box contains the candidate only in one row, eliminate it from the rest of that row
+            if (Integer.bitCount(rowsHit) == 1) {
+                int row = startRow + Integer.numberOfTrailingZeros(rowsHit);
+                for (int index : units[row]) {
+                    if (boxOf[index] != boxIndex && eliminate(index, bit)) hasChanged = true;
+                }
+            }
+            // If box contains the candidate only in one column, eliminate it from the rest of that column
+            else if (Integer.bitCount(columnsHit) == 1) {
+                int col = startColumn + Integer.numberOfTrailingZeros(columnsHit);
+                for (int index : units[size + col]) {
+                    if (boxOf[index] != boxIndex && eliminate(index, bit)) hasChanged = true;
                 }
             }
         }
         return hasChanged;
     }
 
+    // Copies cell values and candidate masks into flat arrays indexed by row * size + col
+    public void exportState(int[] values, int[] candidateMasks) {
+        System.arraycopy(cells, 0, values, 0, cellCount);
+        System.arraycopy(candidates, 0, candidateMasks, 0, cellCount);
+    }
+
+    // Places every value the board is still missing, e.g. a solution found by search
+    public void applySolution(int[] values) {
+        for (int index = 0; index < cellCount; ++index) {
+            if (cells[index] == 0 && values[index] != 0) place(index, values[index]);
+        }
+    }
+
+    public int[][] toGrid() {
+        int[][] grid = new int[size][size];
+        for (int index = 0; index < cellCount; ++index) {
+            grid[index / size][index % size] = cells[index];
+        }
+        return grid;
+    }
+
+    public SudokuLayout getLayout() {
+        return layout;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
     public int getCellValue(int row, int column) {
-        return board[row][column].getCell();
+        return cells[row * size + column];
     }
 
+    // Same as place, or erase for 0
     public void setCellValue(int row, int column, int value) {
-        board[row][column].setCell(value);
+        if (value == 0) erase(row, column);
+        else place(row, column, value);
+    }
 
+    // Interactive edits. Each one updates the unit masks, peer candidates and counts in place and is journaled,
+    // so undo and redo cost one edit each. A value that clashes with a peer is still placed and shows up in
+    // hasConflicts(). Placements made by solve() and the techniques are not journaled.
+    // Returns false when the cell already holds the value.
+    public boolean place(int row, int column, int value) {
+        if (value < 1 || value > size) throw new IllegalArgumentException("Value " + value + " out of range 1.." + size);
+        return edit(cellIndex(row, column), value);
+    }
+
+    // Returns false when the cell was already empty
+    public boolean erase(int row, int column) {
+        return edit(cellIndex(row, column), 0);
+    }
+
+    public boolean undo() {
+        if (journalPosition == 0) return false;
+        int entry = journal[--journalPosition];
+        setCell(entry >>> 10, entry >>> 5 & 0x1F);
+        return true;
+    }
+
+    public boolean redo() {
+        if (journalPosition == journalSize) return false;
+        int entry = journal[journalPosition++];
+        setCell(entry >>> 10, entry & 0x1F);
+        return true;
+    }
+
+    public boolean canUndo() {
+        return journalPosition > 0;
+    }
+
+    public boolean canRedo() {
+        return journalPosition < journalSize;
+    }
+
+    // Next logical step as {row, column, value}: a naked single, else a hidden single, null when neither exists.
+    // Conflicting boards get no hint. Both come off worklists the eliminations and restores keep, entries that went
+    // stale are dropped on the way, so a hint costs amortized constant time whatever the board size. The hidden single
+    // tables are built by the first call (one pass over every unit) so solving without hints doesn't pay for them.
+    public int[] hint() {
+        if (conflicts > 0) return null;
+        while (singleCount > 0) {
+            int index = singles[singleCount - 1];
+            if (cells[index] == 0 && Integer.bitCount(candidates[index]) == 1) {
+                return new int[]{rowOf[index], colOf[index], SudokuCandidates.first(candidates[index])};
+            }
+            queued[index] = false;
+            singleCount--;
+        }
+        if (unitCandidateCells == null) trackHiddenSingles();
+        while (hiddenSingleCount > 0) {
+            int slot = hiddenSingles[hiddenSingleCount - 1];
+            if (unitCandidateCount[slot] == 1) {
+                int index = unitCandidateCells[slot];
+                return new int[]{rowOf[index], colOf[index], slot % size + 1};
+            }
+            hiddenQueued[slot] = false;
+            hiddenSingleCount--;
+        }
+        return null;
+    }
+
+    // One full pass over the units, after that place, erase and the techniques keep both tables current
+    private void trackHiddenSingles() {
+        int slots = layout.unitCount * size;
+        unitCandidateCells = new int[slots];
+        hiddenSingles = new int[slots];
+        hiddenQueued = new boolean[slots];
+        for (int unit = 0; unit < layout.unitCount; ++unit) {
+            for (int index : units[unit]) {
+                for (int bits = candidates[index]; bits != 0; bits &= bits - 1) {
+                    unitCandidateCells[unit * size + Integer.numberOfTrailingZeros(bits)] ^= index;
+                }
+            }
+        }
+        for (int slot = 0; slot < slots; ++slot) {
+            if (unitCandidateCount[slot] == 1) queueHiddenSingle(slot);
+        }
+    }
+
+    private int cellIndex(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= size) {
+            throw new IndexOutOfBoundsException("Cell " + row + "," + column + " outside a " + size + "x" + size + " board");
+        }
+        return row * size + column;
+    }
+
+    private boolean edit(int index, int value) {
+        int old = cells[index];
+        if (old == value) return false;
+        setCell(index, value);
+        if (journal == null) journal = new int[64];
+        else if (journalPosition == journal.length) journal = Arrays.copyOf(journal, 2 * journal.length);
+        journal[journalPosition++] = index << 10 | old << 5 | value;
+        journalSize = journalPosition;
+        return true;
+    }
+
+    private void setCell(int index, int value) {
+        if (cells[index] != 0) erase(index);
+        if (value != 0) place(index, value);
     }
 
     public Set<Integer> getCandidates(int row, int column) {
-        return board[row][column].getCandidates();
+        return SudokuCandidates.view(candidates, row * size + column);
     }
 
+    public int getCandidateMask(int row, int column) {
+        return candidates[row * size + column];
+    }
+
+    // Box index on a 9x9 board, use getLayout().getBoxIndex for other sizes
     public static int getBoxIndex(int row, int col) {
         return (row / 3) * 3 + (col / 3);
     }
 
     public String getBoxes(int num) {
-        return boxes[num].toString();
+        return SudokuCandidates.toSet(boxes[num]).toString();
     }
 
     public int[] getFirstCellPosition(int box) {
         int[] pos = new int[2];
-        pos[0] = (box / 3) * 3;
-        pos[1] = (box % 3) * 3;
+        pos[0] = (box / layout.boxSize) * layout.boxSize;
+        pos[1] = (box % layout.boxSize) * layout.boxSize;
         return pos;
     }
 
     public void printBoard() {
-        System.out.println("——————————————————————————");
-        for (int i = 0; i < 9; ++i) {
-            System.out.print("| ");
-            for (int j = 0; j < 9; ++j) {
-                System.out.print(board[i][j].getCell() + " ");
-                if ((j + 1) % 3 == 0 && j != 8) System.out.print("| ");
+        System.out.print(boardToString());
+    }
+
+    // The whole board as one string, so printing it is a single write
+    public String boardToString() {
+        int boxSize = layout.boxSize;
+        String separator = "—".repeat(2 * size + 2 * (boxSize + 1));
+        StringBuilder out = new StringBuilder(4 * size * size);
+        out.append(separator).append('\n');
+        for (int i = 0; i < size; ++i) {
+            out.append("| ");
+            for (int j = 0; j < size; ++j) {
+                out.append(SudokuLayout.symbol(getCellValue(i, j))).append(' ');
+                if ((j + 1) % boxSize == 0 && j != size - 1) out.append("| ");
             }
-            System.out.print("| ");
-            System.out.println();
-            if ((i + 1) % 3 == 0) System.out.println("——————————————————————————");
+            out.append("| ").append('\n');
+            if ((i + 1) % boxSize == 0) out.append(separator).append('\n');
         }
+        return out.toString();
     }
 
     public void printCandidates() {
-        for (int row = 0; row < 9; ++row) {
-            for (int col = 0; col < 9; ++col) {
-                System.out.print(board[row][col].getCandidates() + " ");
+        StringBuilder out = new StringBuilder();
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                out.append(getCandidates(row, col)).append(' ');
             }
-            System.out.println();
+            out.append('\n');
         }
+        System.out.print(out);
     }
-}
\ No newline at end of file
+}
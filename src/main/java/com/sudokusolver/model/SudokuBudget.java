@@ -0,0 +1,56 @@
+package com.sudokusolver.model;
+
+import java.time.Duration;
+
+// Deadline and step limit for one solve. Every technique run and every search node takes a step, the clock is only
+// read every CLOCK_INTERVAL steps. Once exceeded, or cancelled from another thread, it stays exceeded.
+// The step count is approximate when a parallel search shares the budget.
+public final class SudokuBudget {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final long deadline;
+    private final boolean timed;
+    private final long maxSteps;
+    private long steps;
+    private volatile boolean exceeded;
+
+    private SudokuBudget(long deadline, boolean timed, long maxSteps) {
+        this.deadline = deadline;
+        this.timed = timed;
+        this.maxSteps = maxSteps;
+    }
+
+    // Starts the clock now, a null timeout means no deadline
+    public static SudokuBudget start(Duration timeout, long maxSteps) {
+        if (timeout == null) return new SudokuBudget(0, false, maxSteps);
+        return new SudokuBudget(System.nanoTime() + timeout.toNanos(), true, maxSteps);
+    }
+
+    public static SudokuBudget ofSteps(long maxSteps) {
+        return start(null, maxSteps);
+    }
+
+    // Takes one step, false once the budget is used up
+    public boolean step() {
+        if (exceeded) return false;
+        long taken = ++steps;
+        if (taken > maxSteps || timed && taken % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+            exceeded = true;
+            return false;
+        }
+        return true;
+    }
+
+    public void cancel() {
+        exceeded = true;
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sudokusolver.model;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Helpers for candidate masks, bit (n - 1) set means n is still a candidate
+public final class SudokuCandidates {
+    private SudokuCandidates() {
+    }
+
+    public static int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    public static boolean contains(int mask, int value) {
+        return (mask & bit(value)) != 0;
+    }
+
+    public static int count(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    // Lowest value in the mask, 0 when the mask is empty
+    public static int first(int mask) {
+        return mask == 0 ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    // Read-only snapshot of a mask as a set
+    public static Set<Integer> toSet(int mask) {
+        int[] holder = {mask};
+        return new MaskView(holder, 0);
+    }
+
+    // Live read-only set view over masks[index], changes go through the owner so its counts stay consistent
+    static Set<Integer> view(int[] masks, int index) {
+        return new MaskView(masks, index);
+    }
+
+    private static final class MaskView extends AbstractSet<Integer> {
+        private final int[] masks;
+        private final int index;
+
+        MaskView(int[] masks, int index) {
+            this.masks = masks;
+            this.index = index;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer value && value > 0 && value <= Integer.SIZE && SudokuCandidates.contains(masks[index], value);
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(masks[index]);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<>() {
+                private int remaining = masks[index];
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Integer next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+                    int value = first(remaining);
+                    remaining &= remaining - 1;
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sudokusolver.model;
+
+import java.util.Locale;
+
+// Grades by the hardest group of techniques a puzzle needs, the label is the difficulty column of puzzle files
+public enum SudokuDifficulty {
+    EASY,   // singles only
+    MEDIUM, // the techniques SudokuBoard enables by default
+    HARD,   // every logical technique
+    EXPERT; // needs search
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static SudokuDifficulty fromLabel(String label) {
+        return valueOf(label.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,108 @@
+package com.sudokusolver.model;
+
+// Index tables for one board size. Cell index = row * size + col, units 0..size-1 are rows,
+// size..2*size-1 columns and 2*size..3*size-1 boxes. Shared between boards, never modified after construction.
+public final class SudokuLayout {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+    private static final String SYMBOLS = "0123456789ABCDEFGHIJKLMNOP";
+    private static final SudokuLayout[] LAYOUTS = new SudokuLayout[MAX_BOX_SIZE + 1];
+
+    static {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; ++boxSize) {
+            LAYOUTS[boxSize] = new SudokuLayout(boxSize);
+        }
+    }
+
+    public final int boxSize;
+    public final int size;
+    public final int cellCount;
+    public final int unitCount;
+    public final int allCandidates;
+    final int[] rowOf;
+    final int[] colOf;
+    final int[] boxOf;
+    final int[][] units;
+    final int[][] peers;
+
+    private SudokuLayout(int boxSize) {
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        cellCount = size * size;
+        unitCount = 3 * size;
+        allCandidates = (1 << size) - 1;
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        units = new int[unitCount][size];
+
+        for (int index = 0; index < cellCount; ++index) {
+            int row = index / size;
+            int col = index % size;
+            int box = (row / boxSize) * boxSize + col / boxSize;
+            int boxPosition = (row % boxSize) * boxSize + col % boxSize;
+            rowOf[index] = row;
+            colOf[index] = col;
+            boxOf[index] = box;
+            units[row][col] = index;
+            units[size + col][row] = index;
+            units[2 * size + box][boxPosition] = index;
+        }
+
+        // Row and column peers, then the box cells outside the cell's own row and column
+        int peerCount = 2 * (size - 1) + (boxSize - 1) * (boxSize - 1);
+        peers = new int[cellCount][peerCount];
+        for (int index = 0; index < cellCount; ++index) {
+            int count = 0;
+            for (int other : units[rowOf[index]]) {
+                if (other != index) peers[index][count++] = other;
+            }
+            for (int other : units[size + colOf[index]]) {
+                if (other != index) peers[index][count++] = other;
+            }
+            for (int other : units[2 * size + boxOf[index]]) {
+                if (rowOf[other] != rowOf[index] && colOf[other] != colOf[index]) peers[index][count++] = other;
+            }
+        }
+    }
+
+    public static SudokuLayout of(int size) {
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE || boxSize * boxSize != size) {
+            throw new IllegalArgumentException("Unsupported board size " + size);
+        }
+        return LAYOUTS[boxSize];
+    }
+
+    // Layout whose cell count matches, e.g. from the length of a puzzle string or flat array
+    public static SudokuLayout forCellCount(int cellCount) {
+        int size = (int) Math.round(Math.sqrt(cellCount));
+        if (size * size != cellCount) throw new IllegalArgumentException("Unsupported cell count " + cellCount);
+        return of(size);
+    }
+
+    public int getBoxIndex(int row, int col) {
+        return (row / boxSize) * boxSize + col / boxSize;
+    }
+
+    // Callers must not modify the returned arrays
+    public int[] peers(int index) {
+        return peers[index];
+    }
+
+    public int[] unit(int unit) {
+        return units[unit];
+    }
+
+    // Text symbol of a value: 0 for empty, 1-9, then A for 10 up to P for 25
+    public static char symbol(int value) {
+        return SYMBOLS.charAt(value);
+    }
+
+    // Value of a text symbol, '.' and '0' are empty, -1 when the character is not a symbol
+    public static int valueOf(int c) {
+        if (c == '.') return 0;
+        if (c >= 'a' && c <= 'z') c -= 'a' - 'A';
+        return SYMBOLS.indexOf(c);
+    }
+}
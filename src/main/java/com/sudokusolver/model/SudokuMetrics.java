@@ -0,0 +1,93 @@
+package com.sudokusolver.model;
+
+// Per-technique counters for one solve, or merged across a batch. Not thread safe.
+public class SudokuMetrics {
+    private static final int TECHNIQUES = SudokuTechnique.values().length;
+
+    private final long[] invocations = new long[TECHNIQUES];
+    private final long[] eliminations = new long[TECHNIQUES];
+    private final long[] placements = new long[TECHNIQUES];
+    private final long[] nanos = new long[TECHNIQUES];
+    private long passes;
+    private long solves;
+
+    // Every counter starts at zero
+    public SudokuMetrics() {
+    }
+
+    public void record(SudokuTechnique technique, long eliminated, long placed, long elapsedNanos) {
+        int i = technique.ordinal();
+        invocations[i]++;
+        eliminations[i] += eliminated;
+        placements[i] += placed;
+        nanos[i] += elapsedNanos;
+    }
+
+    // One round of the scheduler in solve(), escalating from the cheapest technique
+    public void recordPass() {
+        passes++;
+    }
+
+    public void recordSolve() {
+        solves++;
+    }
+
+    public void merge(SudokuMetrics other) {
+        for (int i = 0; i < TECHNIQUES; ++i) {
+            invocations[i] += other.invocations[i];
+            eliminations[i] += other.eliminations[i];
+            placements[i] += other.placements[i];
+            nanos[i] += other.nanos[i];
+        }
+        passes += other.passes;
+        solves += other.solves;
+    }
+
+    public SudokuMetrics snapshot() {
+        SudokuMetrics copy = new SudokuMetrics();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getInvocations(SudokuTechnique technique) {
+        return invocations[technique.ordinal()];
+    }
+
+    public long getEliminations(SudokuTechnique technique) {
+        return eliminations[technique.ordinal()];
+    }
+
+    public long getPlacements(SudokuTechnique technique) {
+        return placements[technique.ordinal()];
+    }
+
+    public long getNanos(SudokuTechnique technique) {
+        return nanos[technique.ordinal()];
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getSolves() {
+        return solves;
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (long n : nanos) total += n;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("solves=%d passes=%d%n", solves, passes));
+        sb.append(String.format("%-20s %12s %12s %12s %14s%n", "technique", "invocations", "eliminations", "placements", "nanos"));
+        for (SudokuTechnique technique : SudokuTechnique.values()) {
+            int i = technique.ordinal();
+            sb.append(String.format("%-20s %12d %12d %12d %14d%n", technique, invocations[i], eliminations[i], placements[i], nanos[i]));
+        }
+        return sb.toString();
+    }
+}
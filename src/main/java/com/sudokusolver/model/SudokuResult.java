@@ -0,0 +1,29 @@
+package com.sudokusolver.model;
+
+public class SudokuResult {
+    public enum Status { SOLVED, NO_SOLUTION, ERROR, TIMED_OUT }
+
+    public final SudokuPuzzle puzzle;
+    public final Status status;
+    public final int[][] board; // solved grid, or the state the solver stopped in
+    public final long nanos;
+    public final SudokuMetrics metrics; // null unless metrics were collected
+    public final int[] candidates; // candidate masks by cell when the budget ran out, null otherwise
+
+    public SudokuResult(SudokuPuzzle puzzle, Status status, int[][] board, long nanos, SudokuMetrics metrics) {
+        this(puzzle, status, board, nanos, metrics, null);
+    }
+
+    public SudokuResult(SudokuPuzzle puzzle, Status status, int[][] board, long nanos, SudokuMetrics metrics, int[] candidates) {
+        this.puzzle = puzzle;
+        this.status = status;
+        this.board = board;
+        this.nanos = nanos;
+        this.metrics = metrics;
+        this.candidates = candidates;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sudokusolver.model;
+
+public enum SudokuTechnique {
+    SINGLE_CANDIDATE,
+    HIDDEN_SINGLE,
+    NAKED_PAIRS,
+    BOX_LINE_REDUCTION,
+    CLAIMING,
+    HIDDEN_PAIRS,
+    HIDDEN_TRIPLES,
+    NAKED_TRIPLES,
+    NAKED_QUADS,
+    X_WING,
+    SWORDFISH,
+    XY_WING,
+    SEARCH
+}
@@ -0,0 +1,26 @@
+package com.sudokusolver.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Emitted for every technique run in solve() while a JFR recording has it enabled
+@Name("com.sudokusolver.Technique")
+@Label("Sudoku Technique")
+@Category("Sudoku")
+@StackTrace(false)
+class TechniqueEvent extends Event {
+    @Label("Technique")
+    String technique;
+
+    @Label("Eliminations")
+    long eliminations;
+
+    @Label("Placements")
+    long placements;
+
+    @Label("Progress")
+    boolean changed;
+}
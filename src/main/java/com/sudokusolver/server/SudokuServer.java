@@ -0,0 +1,247 @@
+package com.sudokusolver.server;
+
+import com.sudokusolver.logic.CachingSolver;
+import com.sudokusolver.logic.SudokuLoader;
+import com.sudokusolver.model.SudokuLayout;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Resident solver on a Unix domain socket or a localhost TCP port. Clients pipeline "id puzzle difficulty" lines
+// and get one "id status grid" line back per puzzle, in request order. Each connection has a bounded number of
+// puzzles in flight and the worker queue is bounded too, so a fast client is slowed down to the solving rate
+// instead of piling up work: once the worker queue is full the connection's reader solves the puzzle itself.
+public class SudokuServer implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_CACHE_CAPACITY = 100_000;
+    private static final Future<String> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final ThreadPoolExecutor workers;
+    private final CachingSolver solver;
+    private final int queueCapacity;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private SudokuServer(ServerSocketChannel server, int threads, int queueCapacity, int cacheCapacity) throws IOException {
+        this.server = server;
+        this.address = server.getLocalAddress();
+        this.queueCapacity = queueCapacity;
+        this.solver = new CachingSolver(cacheCapacity);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), SudokuServer::runInCaller);
+        this.acceptor = Thread.ofPlatform().name("sudoku-acceptor").start(this::acceptLoop);
+    }
+
+    // Like CallerRunsPolicy, but refuses instead of silently dropping the task once the pool is shut down
+    private static void runInCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) throw new RejectedExecutionException("Server is closed");
+        task.run();
+    }
+
+    // Binds to a UnixDomainSocketAddress or an InetSocketAddress, a stale socket file is replaced
+    public static SudokuServer start(SocketAddress address, int threads, int queueCapacity, int cacheCapacity) throws IOException {
+        ServerSocketChannel server;
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+        server.bind(address);
+        return new SudokuServer(server, threads, queueCapacity, cacheCapacity);
+    }
+
+    // The bound address, e.g. to find the port after binding to port 0
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    public CachingSolver getSolver() {
+        return solver;
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel connection = server.accept();
+                connections.add(connection);
+                Thread.ofVirtual().name("sudoku-connection").start(() -> serve(connection));
+            } catch (IOException e) {
+                // Closed by close(), anything else ends the server too
+                return;
+            }
+        }
+    }
+
+    // The reader submits puzzles in order and the writer answers them in the same order
+    private void serve(SocketChannel connection) {
+        BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(queueCapacity);
+        Thread writer = Thread.ofVirtual().name("sudoku-writer").start(() -> writeResults(connection, pending));
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(connection), StandardCharsets.US_ASCII), 1 << 16);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String request = line;
+                pending.put(workers.submit(() -> answer(request)));
+            }
+        } catch (IOException | RejectedExecutionException e) {
+            // Client went away or the server is closing
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pending.put(END_OF_INPUT);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeQuietly(connection);
+        }
+    }
+
+    private void writeResults(SocketChannel connection, BlockingQueue<Future<String>> pending) {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(connection), 1 << 16);
+        boolean failed = false;
+        try {
+            while (true) {
+                Future<String> next = pending.poll();
+                if (next == null) {
+                    // Flush only when nothing else is ready, so pipelined answers share socket writes
+                    if (!failed) failed = !flush(out, connection);
+                    next = pending.take();
+                }
+                String answer = next.get();
+                if (answer == null) break;
+                if (!failed) failed = !write(out, answer, connection);
+            }
+            if (!failed) flush(out, connection);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // answer() never throws, a failure here means the worker pool was shut down
+            closeQuietly(connection);
+        }
+    }
+
+    // A failed write closes the connection, the writer keeps draining so the reader never blocks on a full queue
+    private boolean write(OutputStream out, String answer, SocketChannel connection) {
+        try {
+            out.write(answer.getBytes(StandardCharsets.US_ASCII));
+            return true;
+        } catch (IOException e) {
+            closeQuietly(connection);
+            return false;
+        }
+    }
+
+    private boolean flush(OutputStream out, SocketChannel connection) {
+        try {
+            out.flush();
+            return true;
+        } catch (IOException e) {
+            closeQuietly(connection);
+            return false;
+        }
+    }
+
+    private String answer(String line) {
+        SudokuPuzzle puzzle;
+        try {
+            puzzle = SudokuLoader.parse(line);
+        } catch (IllegalArgumentException e) {
+            String id = line.trim().split("\\s+", 2)[0];
+            return id + " " + SudokuResult.Status.ERROR + " -\n";
+        }
+        SudokuResult result = solver.solve(puzzle);
+        StringBuilder answer = new StringBuilder(puzzle.id.length() + result.board.length * result.board.length + 16);
+        answer.append(puzzle.id).append(' ').append(result.status).append(' ');
+        for (int[] row : result.board) {
+            for (int value : row) answer.append(SudokuLayout.symbol(value));
+        }
+        return answer.append('\n').toString();
+    }
+
+    private void closeQuietly(SocketChannel connection) {
+        connections.remove(connection);
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Nothing left to do with it
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (SocketChannel connection : connections) {
+            closeQuietly(connection);
+        }
+        workers.shutdown();
+        if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    // --unix <path> or --port <port> (localhost only), optionally --threads <n>, --queue <n>, --cache <n>
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SocketAddress address = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        int cacheCapacity = DEFAULT_CACHE_CAPACITY;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--unix" -> address = UnixDomainSocketAddress.of(args[i + 1]);
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[i + 1]));
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[i + 1]);
+                case "--cache" -> cacheCapacity = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (address == null) {
+            System.out.println("Usage: SudokuServer (--unix <path> | --port <port>) [--threads n] [--queue n] [--cache n]");
+            return;
+        }
+
+        SudokuServer server = start(address, threads, queueCapacity, cacheCapacity);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Exiting anyway
+            }
+        }));
+        System.out.println("Listening on " + server.getAddress());
+        server.awaitTermination();
+    }
+}
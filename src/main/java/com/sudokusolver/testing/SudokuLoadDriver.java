@@ -0,0 +1,267 @@
+package com.sudokusolver.testing;
+
+import com.sudokusolver.logic.SudokuLoader;
+import com.sudokusolver.logic.SudokuSolver;
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Replays one or more corpora on a fixed number of threads and reports throughput, latency percentiles,
+// allocation per puzzle and the puzzles that did not solve. A zero duration solves every puzzle exactly once,
+// otherwise each thread cycles through the corpus from its own offset until the time is up.
+public class SudokuLoadDriver {
+    private final List<SudokuPuzzle> puzzles;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Duration warmup = Duration.ZERO;
+    private Duration duration = Duration.ZERO;
+
+    public SudokuLoadDriver(List<SudokuPuzzle> puzzles) {
+        if (puzzles.isEmpty()) throw new IllegalArgumentException("No puzzles to replay");
+        this.puzzles = List.copyOf(puzzles);
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Report run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // Warm-up results are thrown away, it only gets the solver compiled before anything is measured
+            if (!warmup.isZero()) runWorkers(pool, warmup, ConcurrentHashMap.newKeySet());
+
+            Set<String> unsolved = ConcurrentHashMap.newKeySet();
+            long start = System.nanoTime();
+            List<Worker> workers = runWorkers(pool, duration, unsolved);
+            long nanos = System.nanoTime() - start;
+
+            LatencyHistogram latency = new LatencyHistogram();
+            long allocated = 0;
+            for (Worker worker : workers) {
+                latency.merge(worker.latency);
+                allocated = worker.allocated < 0 || allocated < 0 ? -1 : allocated + worker.allocated;
+            }
+            List<String> ids = new ArrayList<>(unsolved);
+            ids.sort(null);
+            return new Report(latency.getCount(), nanos, latency, allocated, ids);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Worker> runWorkers(ExecutorService pool, Duration length, Set<String> unsolved) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        AtomicInteger next = new AtomicInteger();
+        List<Worker> workers = new ArrayList<>();
+        for (int t = 0; t < threads; ++t) {
+            workers.add(new Worker(length.isZero() ? -1 : t * puzzles.size() / threads, deadline, next, unsolved));
+        }
+        try {
+            for (Future<Worker> done : pool.invokeAll(workers)) done.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load driver worker failed", e.getCause());
+        }
+        return workers;
+    }
+
+    private final class Worker implements Callable<Worker> {
+        private final int offset; // -1 for a single shared pass
+        private final long deadline;
+        private final AtomicInteger next;
+        private final Set<String> unsolved;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long allocated;
+
+        Worker(int offset, long deadline, AtomicInteger next, Set<String> unsolved) {
+            this.offset = offset;
+            this.deadline = deadline;
+            this.next = next;
+            this.unsolved = unsolved;
+        }
+
+        @Override
+        public Worker call() {
+            SudokuSolver solver = new SudokuSolver();
+            long allocatedBefore = allocatedBytes();
+            if (offset < 0) {
+                for (int i = next.getAndIncrement(); i < puzzles.size(); i = next.getAndIncrement()) {
+                    solve(solver, puzzles.get(i));
+                }
+            } else {
+                int i = offset;
+                do {
+                    solve(solver, puzzles.get(i));
+                    if (++i == puzzles.size()) i = 0;
+                } while (System.nanoTime() < deadline);
+            }
+            long allocatedAfter = allocatedBytes();
+            allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+            return this;
+        }
+
+        private void solve(SudokuSolver solver, SudokuPuzzle puzzle) {
+            SudokuResult result = solver.solve(puzzle, null);
+            latency.record(result.nanos);
+            if (!result.isSolved()) unsolved.add(puzzle.id);
+        }
+    }
+
+    // Bytes allocated by the current thread so far, -1 when the JVM does not track it
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public static final class Report {
+        public final long puzzles;
+        public final long nanos; // wall-clock time of the measured phase
+        public final LatencyHistogram latency;
+        public final long allocatedBytes; // -1 when unknown
+        public final List<String> unsolved;
+
+        Report(long puzzles, long nanos, LatencyHistogram latency, long allocatedBytes, List<String> unsolved) {
+            this.puzzles = puzzles;
+            this.nanos = nanos;
+            this.latency = latency;
+            this.allocatedBytes = allocatedBytes;
+            this.unsolved = unsolved;
+        }
+
+        public double puzzlesPerSecond() {
+            return nanos == 0 ? 0 : puzzles * 1e9 / nanos;
+        }
+
+        public long bytesPerPuzzle() {
+            return allocatedBytes < 0 || puzzles == 0 ? -1 : allocatedBytes / puzzles;
+        }
+
+        // Flat key=value metrics, latencies in microseconds. Numbers use Locale.ROOT so a saved baseline parses anywhere.
+        public Properties toProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("puzzles", Long.toString(puzzles));
+            properties.setProperty("puzzlesPerSecond", String.format(Locale.ROOT, "%.1f", puzzlesPerSecond()));
+            properties.setProperty("p50Micros", micros(latency.percentile(0.50)));
+            properties.setProperty("p90Micros", micros(latency.percentile(0.90)));
+            properties.setProperty("p99Micros", micros(latency.percentile(0.99)));
+            properties.setProperty("maxMicros", micros(latency.getMax()));
+            properties.setProperty("bytesPerPuzzle", Long.toString(bytesPerPuzzle()));
+            properties.setProperty("unsolved", String.join(",", unsolved));
+            return properties;
+        }
+
+        public void save(Path path) throws IOException {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                toProperties().store(writer, "Sudoku load driver results");
+            }
+        }
+
+        public static Properties load(Path path) throws IOException {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+            return properties;
+        }
+
+        public void print(PrintStream out) {
+            out.printf("Puzzles: %d in %.2fs  Throughput: %.1f puzzles/s%n", puzzles, nanos / 1e9, puzzlesPerSecond());
+            out.printf("Latency (us): p50 %s  p90 %s  p99 %s  max %s%n", micros(latency.percentile(0.50)),
+                    micros(latency.percentile(0.90)), micros(latency.percentile(0.99)), micros(latency.getMax()));
+            long bytes = bytesPerPuzzle();
+            out.println("Allocated per puzzle: " + (bytes < 0 ? "n/a" : bytes + " bytes"));
+            out.println("Unsolved: " + (unsolved.isEmpty() ? "none" : unsolved.size() + " " + unsolved));
+        }
+
+        // Prints every numeric metric next to the baseline with the relative change
+        public void compare(Properties baseline, PrintStream out) {
+            Properties current = toProperties();
+            for (String key : List.of("puzzlesPerSecond", "p50Micros", "p90Micros", "p99Micros", "maxMicros", "bytesPerPuzzle")) {
+                String before = baseline.getProperty(key);
+                if (before == null) continue;
+                double was = Double.parseDouble(before);
+                double now = Double.parseDouble(current.getProperty(key));
+                String change = was == 0 ? "n/a" : String.format("%+.1f%%", (now - was) * 100 / was);
+                out.printf("%-18s %12s -> %12s  %s%n", key, before, current.getProperty(key), change);
+            }
+            List<String> wasUnsolved = List.of(baseline.getProperty("unsolved", "").split(","));
+            List<String> newlyUnsolved = unsolved.stream().filter(id -> !wasUnsolved.contains(id)).toList();
+            if (!newlyUnsolved.isEmpty()) out.println("Newly unsolved: " + newlyUnsolved);
+        }
+
+        private static String micros(long nanos) {
+            return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+        }
+    }
+
+    // SudokuLoadDriver [--warmup seconds] [--duration seconds] [--threads n] [--save file] [--baseline file] corpus...
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<SudokuPuzzle> puzzles = new ArrayList<>();
+        Duration warmup = Duration.ofSeconds(5);
+        Duration duration = Duration.ofSeconds(20);
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path save = null;
+        Path baseline = null;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "--warmup" -> warmup = seconds(args[++i]);
+                case "--duration" -> duration = seconds(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--save" -> save = Path.of(args[++i]);
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                default -> {
+                    if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option " + args[i]);
+                    puzzles.addAll(SudokuLoader.loadAllFromFile(args[i]));
+                }
+            }
+        }
+        if (puzzles.isEmpty()) {
+            System.out.println("Usage: SudokuLoadDriver [--warmup s] [--duration s] [--threads n] [--save file] [--baseline file] corpus...");
+            return;
+        }
+
+        SudokuLoadDriver driver = new SudokuLoadDriver(puzzles);
+        driver.setWarmup(warmup);
+        driver.setDuration(duration);
+        driver.setThreads(threads);
+        Report report = driver.run();
+        report.print(System.out);
+        if (baseline != null) report.compare(Report.load(baseline), System.out);
+        if (save != null) report.save(save);
+    }
+
+    private static Duration seconds(String value) {
+        return Duration.ofMillis(Math.round(Double.parseDouble(value) * 1000));
+    }
+}
@@ -1,5 +1,10 @@
 module com.sudokusolver {
+    requires jdk.jfr;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
+
     exports com.sudokusolver.model;
     exports com.sudokusolver.logic;
+    exports com.sudokusolver.server;
     exports com.sudokusolver.testing;
 }
@@ -0,0 +1,87 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuPuzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SudokuLoaderTest {
+    private static final String EASY = "891460027070008600034007081057081360000706000268930714125879436000000805309650002";
+    private static final String HARD = "009100040040306700073040000000004005010000003490605000000900000038000100020000806";
+
+    @TempDir
+    Path dir;
+
+    private Path write(String text) throws IOException {
+        Path file = dir.resolve("puzzles.txt");
+        Files.writeString(file, text);
+        return file;
+    }
+
+    private static void assertSame(SudokuPuzzle expected, SudokuPuzzle actual) {
+        assertEquals(expected.id, actual.id);
+        assertEquals(expected.difficulty, actual.difficulty);
+        assertArrayEquals(expected.board, actual.board);
+    }
+
+    @Test
+    void missingDifficultyStaysOnItsLine() throws IOException {
+        String text = "e0 " + EASY + " easy\ne1 " + EASY + "\nh0 " + HARD + " hard\r\n\nh1 " + HARD + " hard extra";
+        List<SudokuPuzzle> puzzles = SudokuLoader.loadAllFromFile(write(text).toString());
+
+        List<String> lines = text.lines().filter(line -> !line.isBlank()).toList();
+        assertEquals(lines.size(), puzzles.size());
+        for (int i = 0; i < lines.size(); ++i) assertSame(SudokuLoader.parse(lines.get(i)), puzzles.get(i));
+        assertEquals("", puzzles.get(1).difficulty);
+    }
+
+    @Test
+    void malformedLineReportsItsOwnOffset() throws IOException {
+        String first = "e0 " + EASY + " easy\n";
+        String second = "e1 " + EASY.substring(1) + " easy\n";
+        Path file = write(first + second + "h0 " + HARD + " hard\n");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SudokuLoader.loadAllFromFile(file.toString()));
+        assertTrue(e.getMessage().endsWith("at byte " + first.length()), e.getMessage());
+
+        Path idOnly = write(first + "e1\n" + "h0 " + HARD + " hard\n");
+        e = assertThrows(IllegalArgumentException.class, () -> SudokuLoader.loadAllFromFile(idOnly.toString()));
+        assertTrue(e.getMessage().endsWith("at byte " + first.length()), e.getMessage());
+    }
+
+    @Test
+    void chunksSplitAtEveryLineGiveTheSamePuzzles() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; ++i) {
+            text.append(i % 2 == 0 ? "e" : "h").append(i).append(' ').append(i % 2 == 0 ? EASY : HARD);
+            if (i % 3 != 0) text.append(i % 2 == 0 ? " easy" : " hard");
+            text.append(i % 5 == 0 ? "\n\n" : "\n");
+        }
+        Path file = write(text.toString());
+        List<SudokuPuzzle> expected = SudokuLoader.loadAllFromFile(file.toString());
+        assertEquals(40, expected.size());
+
+        for (int chunks : new int[]{2, 7, 40, 64}) {
+            List<SudokuPuzzle> actual = new ArrayList<>();
+            for (Stream<SudokuPuzzle> chunk : SudokuLoader.streamChunks(file.toString(), chunks)) {
+                try (chunk) {
+                    chunk.forEach(actual::add);
+                }
+            }
+            assertEquals(expected.size(), actual.size(), chunks + " chunks");
+            for (int i = 0; i < expected.size(); ++i) assertSame(expected.get(i), actual.get(i));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sudokusolver.logic;
+
+import com.sudokusolver.model.SudokuPuzzle;
+import com.sudokusolver.model.SudokuResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SudokuSolutionStoreTest {
+    private static final SudokuPuzzle PUZZLE = SudokuLoader.parse(
+            "h0 009100040040306700073040000000004005010000003490605000000900000038000100020000806 hard");
+    private static final SudokuPuzzle UNSOLVABLE = SudokuLoader.parse(
+            "bad 110000000000000000000000000000000000000000000000000000000000000000000000000000000 x");
+
+    @TempDir
+    Path dir;
+
+    private static SudokuResult solve(SudokuPuzzle puzzle) {
+        return new SudokuSolver().solve(puzzle, null);
+    }
+
+    // Distinct puzzles cut from one solution, each clears a different set of the first cells
+    private static List<SudokuResult> variants(SudokuResult solved, int count) {
+        List<SudokuResult> results = new ArrayList<>();
+        for (int i = 1; i <= count; ++i) {
+            int[][] board = new int[9][];
+            for (int row = 0; row < 9; ++row) board[row] = solved.board[row].clone();
+            for (int cell = 0; cell < 16; ++cell) {
+                if ((i >>> cell & 1) != 0) board[cell / 9][cell % 9] = 0;
+            }
+            SudokuPuzzle puzzle = new SudokuPuzzle("v" + i, board, "");
+            results.add(new SudokuResult(puzzle, SudokuResult.Status.SOLVED, solved.board, i, null));
+        }
+        return results;
+    }
+
+    @Test
+    void putThenLookupReturnsSolutionAndSolveTime() throws IOException {
+        SudokuResult solved = solve(PUZZLE);
+        try (SudokuSolutionStore store = SudokuSolutionStore.open(dir.resolve("store"))) {
+            assertNull(store.lookup(PUZZLE));
+            assertTrue(store.put(solved));
+            assertFalse(store.put(solved));
+
+            SudokuResult stored = store.lookup(PUZZLE);
+            assertNotNull(stored);
+            assertEquals(SudokuResult.Status.SOLVED, stored.status);
+            assertArrayEquals(solved.board, stored.board);
+            assertEquals(solved.nanos, stored.nanos);
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void storesNoSolutionButSkipsUnstableResults() throws IOException {
+        try (SudokuSolutionStore store = SudokuSolutionStore.open(dir.resolve("store"))) {
+            assertTrue(store.put(solve(UNSOLVABLE)));
+            assertEquals(SudokuResult.Status.NO_SOLUTION, store.lookup(UNSOLVABLE).status);
+
+            SudokuResult timedOut = new SudokuResult(PUZZLE, SudokuResult.Status.TIMED_OUT, PUZZLE.board, 0, null);
+            assertFalse(store.put(timedOut));
+            assertNull(store.lookup(PUZZLE));
+        }
+    }
+
+    @Test
+    void entriesSurviveReopenAndGrowth() throws IOException {
+        Path path = dir.resolve("store");
+        List<SudokuResult> results = variants(solve(PUZZLE), 3000);
+        try (SudokuSolutionStore store = SudokuSolutionStore.open(path)) {
+            for (SudokuResult result : results) assertTrue(store.put(result));
+        }
+        try (SudokuSolutionStore store = SudokuSolutionStore.openReadOnly(path)) {
+            assertEquals(results.size(), store.size());
+            for (SudokuResult result : results) {
+                SudokuResult stored = store.lookup(result.puzzle);
+                assertNotNull(stored, result.puzzle.id);
+                assertArrayEquals(result.board, stored.board);
+                assertEquals(result.nanos, stored.nanos);
+            }
+        }
+    }
+
+    @Test
+    void compactDropsRemovedEntriesAndShrinksFile() throws IOException {
+        Path path = dir.resolve("store");
+        List<SudokuResult> results = variants(solve(PUZZLE), 3000);
+        try (SudokuSolutionStore store = SudokuSolutionStore.open(path)) {
+            for (SudokuResult result : results) store.put(result);
+            long before = Files.size(path);
+            for (int i = 0; i < 2500; ++i) assertTrue(store.remove(results.get(i).puzzle.board));
+            assertFalse(store.remove(results.get(0).puzzle.board));
+            assertEquals(500, store.size());
+
+            store.compact();
+            assertTrue(Files.size(path) < before);
+            assertEquals(500, store.size());
+            for (int i = 0; i < results.size(); ++i) {
+                assertEquals(i >= 2500, store.lookup(results.get(i).puzzle) != null, results.get(i).puzzle.id);
+            }
+        }
+    }
+
+    @Test
+    void secondWriterIsRefused() throws IOException {
+        Path path = dir.resolve("store");
+        try (SudokuSolutionStore store = SudokuSolutionStore.open(path)) {
+            assertThrows(IOException.class, () -> SudokuSolutionStore.open(path));
+            try (SudokuSolutionStore reader = SudokuSolutionStore.openReadOnly(path)) {
+                assertFalse(reader.isWritable());
+                assertThrows(IllegalStateException.class, () -> reader.put(solve(PUZZLE)));
+            }
+        }
+        // Released on close
+        SudokuSolutionStore.open(path).close();
+    }
+
+    @Test
+    void writerDoesNotOpenRetiredFile() throws IOException {
+        Path path = dir.resolve("store");
+        Path old = dir.resolve("old");
+        List<SudokuResult> results = variants(solve(PUZZLE), 2000);
+        try (SudokuSolutionStore writer = SudokuSolutionStore.open(path)) {
+            // A link to the file the next growth retires, like a writer that opened the path just before the swap
+            Files.createLink(old, path);
+            for (SudokuResult result : results) writer.put(result);
+        }
+        assertThrows(IOException.class, () -> SudokuSolutionStore.open(old));
+        try (SudokuSolutionStore writer = SudokuSolutionStore.open(path)) {
+            assertEquals(results.size(), writer.size());
+        }
+    }
+
+    @Test
+    void readerFollowsWriterThroughRewrite() throws IOException {
+        Path path = dir.resolve("store");
+        List<SudokuResult> results = variants(solve(PUZZLE), 2000);
+        try (SudokuSolutionStore writer = SudokuSolutionStore.open(path);
+             SudokuSolutionStore reader = SudokuSolutionStore.openReadOnly(path)) {
+            writer.put(results.get(0));
+            assertNotNull(reader.lookup(results.get(0).puzzle));
+
+            // Enough entries to grow the table several times, each growth replaces the file
+            for (SudokuResult result : results) writer.put(result);
+            for (SudokuResult result : results) assertNotNull(reader.lookup(result.puzzle), result.puzzle.id);
+        }
+    }
+}
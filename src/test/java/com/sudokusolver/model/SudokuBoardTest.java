@@ -0,0 +1,265 @@
+package com.sudokusolver.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SudokuBoardTest {
+    private static final String EASY = "891460027070008600034007081057081360000706000268930714125879436000000805309650002";
+    private static final String EASY_SOLUTION = "891463527572198643634527981457281369913746258268935714125879436746312895389654172";
+    private static final String HARD = "009100040040306700073040000000004005010000003490605000000900000038000100020000806";
+    private static final String HARD_SOLUTION = "659127348842356719173849652386214975215798463497635281761983524538462197924571836";
+    private static final int[] BOX_0_BELOW_ROW_0 = {9, 10, 11, 18, 19, 20};
+
+    // 81 digits, or rows of 9 joined together, with '.' or '0' for an empty cell
+    static int[][] grid(String... rows) {
+        String cells = String.join("", rows);
+        int[][] grid = new int[9][9];
+        for (int i = 0; i < 81; ++i) {
+            char c = cells.charAt(i);
+            grid[i / 9][i % 9] = c == '.' ? 0 : c - '0';
+        }
+        return grid;
+    }
+
+    static int[] masks(SudokuBoard board) {
+        int[] values = new int[81];
+        int[] masks = new int[81];
+        board.exportState(values, masks);
+        return masks;
+    }
+
+    @Test
+    void knownPuzzlesSolveLogicallyToTheirSolution() {
+        SudokuBoard easy = new SudokuBoard(grid(EASY));
+        easy.solve();
+        assertTrue(easy.isSolved());
+        assertArrayEquals(grid(EASY_SOLUTION), easy.toGrid());
+
+        // Too hard for the default techniques alone, but what they place must agree with the solution
+        SudokuBoard hard = new SudokuBoard(grid(HARD));
+        hard.solve();
+        assertFalse(hard.hasConflicts());
+        int[][] solution = grid(HARD_SOLUTION);
+        int[][] reached = hard.toGrid();
+        for (int row = 0; row < 9; ++row) {
+            for (int col = 0; col < 9; ++col) {
+                if (reached[row][col] != 0) assertEquals(solution[row][col], reached[row][col], row + "," + col);
+                else assertTrue((hard.getCandidateMask(row, col) >>> (solution[row][col] - 1) & 1) != 0, row + "," + col);
+            }
+        }
+    }
+
+    @Test
+    void candidatesAreWhatThePlacementsAllow() {
+        int[][] givens = grid(HARD);
+        int[] masks = masks(new SudokuBoard(givens));
+        for (int index = 0; index < 81; ++index) {
+            int row = index / 9;
+            int col = index % 9;
+            int expected = 0;
+            if (givens[row][col] == 0) {
+                expected = 0x1FF;
+                for (int other = 0; other < 81; ++other) {
+                    int r = other / 9;
+                    int c = other % 9;
+                    boolean peer = r == row || c == col || r / 3 == row / 3 && c / 3 == col / 3;
+                    if (peer && givens[r][c] != 0) expected &= ~(1 << (givens[r][c] - 1));
+                }
+            }
+            assertEquals(expected, masks[index], row + "," + col);
+        }
+    }
+
+    // Runs one technique on a board whose candidates come from its givens alone and checks that it removes exactly
+    // the digits in removed (cell index -> mask), and nothing anywhere else
+    private static void assertEliminates(int[][] givens, Predicate<SudokuBoard> technique, Map<Integer, Integer> removed) {
+        SudokuBoard board = new SudokuBoard(givens);
+        int[] before = masks(board);
+        assertTrue(technique.test(board));
+        int[] after = masks(board);
+        for (int index = 0; index < 81; ++index) {
+            assertEquals(0, after[index] & ~before[index], "candidates added at " + index);
+            assertEquals(removed.getOrDefault(index, 0), before[index] & ~after[index], "removed at " + index);
+        }
+        assertFalse(technique.test(board), "second run found more");
+    }
+
+    private static Map<Integer, Integer> cells(int mask, int... indexes) {
+        Map<Integer, Integer> removed = new HashMap<>();
+        for (int index : indexes) removed.put(index, mask);
+        return removed;
+    }
+
+    // Every cell of the columns outside the given rows
+    private static int[] columnsExcept(int[] columns, int... rows) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int row = 0; row < 9; ++row) {
+            if (Arrays.binarySearch(rows, row) >= 0) continue;
+            for (int col : columns) indexes.add(row * 9 + col);
+        }
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void nakedTripleClearsItsDigitsFromTheBox() {
+        // Row 0 leaves {1,2,3} for its first three cells
+        assertEliminates(grid("...456789", ".........", ".........", ".........", ".........",
+                        ".........", ".........", ".........", "........."),
+                SudokuBoard::nakedTriples, cells(0b111, BOX_0_BELOW_ROW_0));
+    }
+
+    @Test
+    void hiddenPairKeepsOnlyItsDigits() {
+        // 1 and 2 are placed in rows 1 and 2 and column 2, so row 0 and box 0 only have room for them at r0c0 and r0c1
+        assertEliminates(grid(".........", "....12...", "......21.", "..1......", "..2......",
+                        ".........", ".........", ".........", "........."),
+                SudokuBoard::hiddenPairs, cells(0x1FC, 0, 1));
+    }
+
+    @Test
+    void claimingClearsTheRestOfTheBox() {
+        // 1, 8 and 9 are left for row 0's first three cells, so they leave the rest of box 0
+        assertEliminates(grid("...234567", ".........", ".........", ".........", ".........",
+                        ".........", ".........", ".........", "........."),
+                SudokuBoard::claiming, cells(0b110000001, BOX_0_BELOW_ROW_0));
+    }
+
+    @Test
+    void xWingClearsItsColumns() {
+        // 1 and 9 fit only columns 0 and 4 of rows 0 and 4
+        assertEliminates(grid(".234.5678", ".........", ".........", ".........", ".345.6782",
+                        ".........", ".........", ".........", "........."),
+                SudokuBoard::xWing, cells(0b100000001, columnsExcept(new int[]{0, 4}, 0, 4)));
+    }
+
+    @Test
+    void swordfishClearsItsColumns() {
+        // 1, 8 and 9 fit only columns 0, 3 and 6 of rows 0, 3 and 6, three per row so no X-Wing
+        assertEliminates(grid(".23.45.67", ".........", ".........", ".34.56.72", ".........",
+                        ".........", ".45.67.23", ".........", "........."),
+                SudokuBoard::swordfish, cells(0b110000001, columnsExcept(new int[]{0, 3, 6}, 0, 3, 6)));
+    }
+
+    @Test
+    void xyWingClearsTheCellSeeingBothPincers() {
+        // Pivot r0c0 {1,2}, pincers r0c4 {1,3} and r3c0 {2,3}: r3c4 sees both and loses 3
+        assertEliminates(grid(".456.789.", "....2....", ".3.......", ".194.567.", ".........",
+                        ".8.......", ".........", ".........", "........."),
+                SudokuBoard::xyWing, cells(0b100, 3 * 9 + 4));
+    }
+
+    // An edited board must look exactly like one built from its current grid
+    private static void assertLikeFresh(SudokuBoard board) {
+        SudokuBoard fresh = new SudokuBoard(board.toGrid());
+        assertArrayEquals(masks(fresh), masks(board));
+        assertEquals(fresh.hasConflicts(), board.hasConflicts());
+    }
+
+    @Test
+    void placeUndoAndRedoLeaveTheMasksOfAFreshBoard() {
+        int[][] puzzle = grid(EASY);
+        int[][] solution = grid(EASY_SOLUTION);
+        SudokuBoard board = new SudokuBoard(puzzle);
+        assertFalse(board.canUndo());
+
+        int edits = 0;
+        for (int index = 0; index < 81; index += 7) {
+            int row = index / 9;
+            int col = index % 9;
+            if (puzzle[row][col] == 0) assertTrue(board.place(row, col, solution[row][col]));
+            else assertTrue(board.erase(row, col));
+            edits++;
+            assertLikeFresh(board);
+        }
+        // A clashing value and an overwrite
+        assertTrue(board.place(0, 3, 8));
+        assertTrue(board.hasConflicts());
+        assertTrue(board.place(0, 3, 4));
+        edits += 2;
+        assertFalse(board.place(0, 3, 4));
+        assertLikeFresh(board);
+        int[][] edited = board.toGrid();
+
+        for (int i = 0; i < edits; ++i) {
+            assertTrue(board.undo());
+            assertLikeFresh(board);
+        }
+        assertFalse(board.undo());
+        assertArrayEquals(puzzle, board.toGrid());
+
+        for (int i = 0; i < edits; ++i) {
+            assertTrue(board.redo());
+            assertLikeFresh(board);
+        }
+        assertFalse(board.redo());
+        assertArrayEquals(edited, board.toGrid());
+
+        // A new edit drops the redo tail
+        board.undo();
+        assertTrue(board.canRedo());
+        assertTrue(board.place(0, 0, 8));
+        assertFalse(board.canRedo());
+    }
+
+    @Test
+    void eraseAfterDeductionsRebuildsTheCandidates() {
+        SudokuBoard board = new SudokuBoard(grid(HARD));
+        board.setEnabled(SudokuTechnique.X_WING, true);
+        board.setEnabled(SudokuTechnique.XY_WING, true);
+        board.solve();
+        int[][] reached = board.toGrid();
+        int[][] puzzle = grid(HARD);
+        for (int index = 0; index < 81; ++index) {
+            if (puzzle[index / 9][index % 9] == 0 && reached[index / 9][index % 9] != 0) {
+                board.erase(index / 9, index % 9);
+                break;
+            }
+        }
+        assertLikeFresh(board);
+    }
+
+    @Test
+    void hintFindsHiddenSinglesAndFollowsEdits() {
+        // No cell is down to one candidate, but 1 only fits r0c0 in row 0, column 0 and box 0
+        SudokuBoard board = new SudokuBoard(grid(".........", "....1....", ".......1.", ".1.......", ".........",
+                ".........", "..1......", ".........", "........."));
+        assertArrayEquals(new int[]{0, 0, 1}, board.hint());
+        board.place(0, 0, 1);
+        assertLikeFresh(board);
+        board.undo();
+        assertArrayEquals(new int[]{0, 0, 1}, board.hint());
+    }
+
+    @Test
+    void followingHintsSolvesTheEasyPuzzle() {
+        int[][] solution = grid(EASY_SOLUTION);
+        SudokuBoard board = new SudokuBoard(grid(EASY));
+        int[] hint;
+        while ((hint = board.hint()) != null) {
+            assertEquals(solution[hint[0]][hint[1]], hint[2]);
+            assertTrue(board.place(hint[0], hint[1], hint[2]));
+        }
+        assertTrue(board.isSolved());
+    }
+
+    @Test
+    void conflictingGivensAreReportedNotSolved() {
+        int[][] givens = grid(EASY);
+        givens[0][3] = 8; // 8 already sits at row 0, column 0
+        SudokuBoard board = new SudokuBoard(givens);
+        assertTrue(board.hasConflicts());
+        board.solve();
+        assertFalse(board.isSolved());
+    }
+}